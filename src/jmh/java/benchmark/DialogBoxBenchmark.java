@@ -0,0 +1,83 @@
+package benchmark;
+
+import bug.DialogBox;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating one chat bubble, by parsing the dialog box FXML as every bubble used to, and by building
+ * the same nodes in code as {@link DialogBox} does now. Neither bubble is added to a scene, so this is the
+ * cost of creating the nodes, not of laying them out.
+ * Starting the JavaFX toolkit needs a display, or Monocle on a headless machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, time = 3) // The FXML loader only settles after about a minute of warmup
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class DialogBoxBenchmark {
+    private static final String TEXT = "Got it. I've added this task:\n[T][ ] buy milk\nNow you have 4 tasks in the list.";
+
+    private final URL template = DialogBoxBenchmark.class.getResource("/benchmark/DialogBoxTemplate.fxml");
+    private Image image;
+
+    /**
+     * Starts the JavaFX toolkit, which decoding images needs, and decodes the display picture once.
+     */
+    @Setup
+    public void setUp() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException e) {
+            // The toolkit is already running
+        }
+        image = new Image(DialogBoxBenchmark.class.getResourceAsStream("/images/sonny2.png"));
+    }
+
+    /**
+     * Creates a bubble by loading the FXML template, as each dialog box used to.
+     *
+     * @return the bubble, so that the work is not optimised away
+     * @throws IOException if the template cannot be read
+     */
+    @Benchmark
+    public HBox fxmlBubble() throws IOException {
+        FXMLLoader loader = new FXMLLoader(template);
+        HBox box = new HBox();
+        loader.setRoot(box);
+        loader.load();
+        ((TextFlow) loader.getNamespace().get("dialog")).getChildren().add(new Text(TEXT));
+        ((ImageView) loader.getNamespace().get("displayPicture")).setImage(image);
+        return box;
+    }
+
+    /**
+     * Creates a bubble in code with the shared image, as dialog boxes do now.
+     *
+     * @return the bubble, so that the work is not optimised away
+     */
+    @Benchmark
+    public HBox codeBubble() {
+        return DialogBox.getBugDialog(TEXT, image);
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import command.Command;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ui.Parser;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long {@link Parser#parse(String)} takes for each kind of command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    private static final Map<String, String> INPUTS = Map.ofEntries(
+            Map.entry("todo", "todo read book"),
+            Map.entry("deadline", "deadline return book /by 2025-09-01"),
+            Map.entry("event", "event project meeting /from 2025-09-01 1400 /to 2025-09-01 1600"),
+            Map.entry("mark", "mark 2"),
+            Map.entry("delete", "delete 3"),
+            Map.entry("bulk", "delete 1-500,700"),
+            Map.entry("find", "find /i book"),
+            Map.entry("snooze", "snooze 1 1d4h30m"),
+            Map.entry("due", "due next 7d"),
+            Map.entry("list", "list"),
+            Map.entry("messy", "  Deadline   return\tbook   /by  2025-09-01  "),
+            Map.entry("unknown", "blah blah"));
+
+    @Param({"todo", "deadline", "event", "mark", "delete", "bulk", "find", "snooze", "due", "list", "messy",
+            "unknown"})
+    public String command;
+
+    private String input;
+
+    /**
+     * Looks up the input line for the command type being measured.
+     */
+    @Setup
+    public void setUp() {
+        input = INPUTS.get(command);
+    }
+
+    /**
+     * Parses one command line.
+     *
+     * @return the parsed command, so that the work is not optimised away
+     */
+    @Benchmark
+    public Command parse() {
+        return Parser.parse(input);
+    }
+}
@@ -0,0 +1,101 @@
+package benchmark;
+
+import exception.BugException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import storage.SnapshotFormat;
+import storage.Storage;
+import task.Task;
+import task.TaskList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures loading and rewriting the snapshot in both formats.
+ * Journaling is off, so every update is a full snapshot rewrite and every load a full read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"TEXT", "BINARY"})
+    public SnapshotFormat format;
+
+    private Path directory;
+    private Storage storage;
+    private TaskList tasks;
+
+    /**
+     * Writes a snapshot of synthetic tasks to a fresh temporary directory.
+     *
+     * @throws IOException if the directory cannot be created
+     * @throws BugException if the snapshot cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, BugException {
+        directory = Files.createTempDirectory("bug-bench");
+        storage = new Storage(directory.resolve("bug.txt"), false);
+        storage.setSnapshotFormat(format);
+        tasks = new TaskList(SyntheticTasks.generate(size, SyntheticTasks.SEED));
+        storage.update(tasks);
+    }
+
+    /**
+     * Deletes the temporary directory.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        storage.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Reads the snapshot back.
+     *
+     * @return the loaded tasks, so that the work is not optimised away
+     * @throws BugException if the snapshot cannot be read
+     */
+    @Benchmark
+    public List<Task> load() throws BugException {
+        return storage.load();
+    }
+
+    /**
+     * Rewrites the whole snapshot.
+     *
+     * @throws BugException if the snapshot cannot be written
+     */
+    @Benchmark
+    public void update() throws BugException {
+        storage.update(tasks);
+    }
+}
@@ -0,0 +1,79 @@
+package benchmark;
+
+import task.Deadlines;
+import task.Events;
+import task.Task;
+import task.ToDos;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible task lists for the benchmarks.
+ * The same count and seed always give the same tasks, so results can be compared across runs and machines
+ * without any data files.
+ */
+final class SyntheticTasks {
+    /** Seed used by every benchmark unless it needs several independent lists. */
+    static final long SEED = 20_250_101L;
+
+    private static final String[] WORDS = {
+        "read", "book", "report", "meeting", "team", "review", "submit", "assignment", "pay", "bills",
+        "call", "mom", "groceries", "laundry", "project", "demo", "lecture", "tutorial", "gym", "dentist",
+        "plan", "trip", "fix", "bug", "write", "essay", "return", "library", "buy", "milk",
+    };
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final int DAYS = 365;
+
+    private SyntheticTasks() {
+    }
+
+    /**
+     * Generates a mix of roughly half todos, three tenths deadlines and one fifth events.
+     * Descriptions are two to five words long, and about one task in five is done.
+     *
+     * @param count the number of tasks
+     * @param seed the random seed
+     * @return the tasks, in list order
+     */
+    static List<Task> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String description = description(random);
+            int kind = random.nextInt(10);
+            Task task;
+            if (kind < 5) {
+                task = new ToDos(description);
+            } else if (kind < 8) {
+                task = new Deadlines(description, FIRST_DAY.plusDays(random.nextInt(DAYS)));
+            } else {
+                LocalDateTime start = FIRST_DAY.atStartOfDay().plusMinutes(15L * random.nextInt(DAYS * 96));
+                task = new Events(description, start, start.plusMinutes(15L * (1 + random.nextInt(16))));
+            }
+            if (random.nextInt(5) == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Picks a description of two to five words.
+     *
+     * @param random the source of randomness
+     * @return the description
+     */
+    private static String description(Random random) {
+        StringBuilder description = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        int words = 1 + random.nextInt(4);
+        for (int i = 0; i < words; i++) {
+            description.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return description.toString();
+    }
+}
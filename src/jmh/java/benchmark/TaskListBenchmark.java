@@ -0,0 +1,67 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import task.Task;
+import task.TaskList;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures substring search over task lists of increasing size.
+ * "report" appears in many descriptions, "port" needs the trigram index to narrow a common substring down,
+ * and "xylophone" appears in none.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"report", "port", "xylophone"})
+    public String keyword;
+
+    private TaskList tasks;
+
+    /**
+     * Builds the task list once per trial.
+     */
+    @Setup
+    public void setUp() {
+        tasks = new TaskList(SyntheticTasks.generate(size, SyntheticTasks.SEED));
+    }
+
+    /**
+     * Finds the tasks containing the keyword.
+     *
+     * @return the matches, so that the work is not optimised away
+     */
+    @Benchmark
+    public ArrayList<Task> findTasks() {
+        return tasks.findTasks(keyword);
+    }
+
+    /**
+     * Finds the tasks containing the keyword, ignoring case.
+     *
+     * @return the matches, so that the work is not optimised away
+     */
+    @Benchmark
+    public ArrayList<Task> findTasksIgnoreCase() {
+        return tasks.findTasks(keyword, true);
+    }
+}
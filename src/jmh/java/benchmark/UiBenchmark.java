@@ -0,0 +1,52 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import task.TaskList;
+import ui.Ui;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering the full task list as the list command shows it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class UiBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private final Ui ui = new Ui();
+    private TaskList tasks;
+
+    /**
+     * Builds the task list once per trial.
+     */
+    @Setup
+    public void setUp() {
+        tasks = new TaskList(SyntheticTasks.generate(size, SyntheticTasks.SEED));
+    }
+
+    /**
+     * Renders the list.
+     *
+     * @return the rendered text, so that the work is not optimised away
+     */
+    @Benchmark
+    public String showList() {
+        return ui.showList(tasks);
+    }
+}
@@ -3,12 +3,29 @@ package bug;
 import command.Command;
 import exception.BugException;
 import javafx.application.Platform;
+import metrics.ExecuteEvent;
+import metrics.LatencyRecorder;
+import metrics.LatencyRecorder.Phase;
+import metrics.ParseEvent;
+import storage.Durability;
+import storage.SnapshotFormat;
 import storage.Storage;
 import task.TaskList;
 import ui.Parser;
 import ui.Ui;
 
-import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 /**
  * Main application class for the Bug task management system.
@@ -16,18 +33,36 @@ import java.util.Scanner;
  * Serves as the entry point and coordinator between UI, storage, and task management components.
  */
 public class Bug {
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 20;
+    private static final String ASYNC_WRITES_PROPERTY = "bug.storage.async";
+    private static final String FLUSH_INTERVAL_PROPERTY = "bug.storage.flushMillis";
+    private static final String DURABILITY_PROPERTY = "bug.storage.durability";
+    private static final String FORMAT_PROPERTY = "bug.storage.format";
+    private static final int CONSOLE_BUFFER_SIZE = 1 << 16;
 
     private final Storage storage;
-    private final TaskList tasks;
+    private TaskList tasks;
     private final Ui ui;
+    private final LatencyRecorder recorder = LatencyRecorder.getDefault();
+    private volatile boolean isClosed = false; // Set once storage is closed, after which no command may run
 
     /**
      * Initializes the Bug application with UI, storage, and task list components.
      * Loads existing tasks from storage or starts with an empty list if loading fails.
      */
     public Bug() {
+        this(newStorage());
+    }
+
+    /**
+     * Initializes the Bug application on top of the given storage.
+     * Loads existing tasks from it or starts with an empty list if loading fails.
+     *
+     * @param storage the storage to load tasks from and save them to
+     */
+    Bug(Storage storage) {
         ui = new Ui();
-        storage = new Storage();
+        this.storage = storage;
         TaskList loadedTasks;
 
         try {
@@ -37,53 +72,245 @@ public class Bug {
             loadedTasks = new TaskList();
         }
         tasks = loadedTasks;
+        recorder.startPeriodicDumpFromProperties(); // Only if -Dbug.stats.file is set
+    }
+
+    /**
+     * Creates the default storage, configured from the system properties.
+     * Values that cannot be parsed are ignored and the defaults kept.
+     *
+     * @return the storage for data/bug.txt
+     */
+    private static Storage newStorage() {
+        Storage storage = new Storage();
+        if ("binary".equalsIgnoreCase(System.getProperty(FORMAT_PROPERTY))) {
+            storage.setSnapshotFormat(SnapshotFormat.BINARY); // bug.txt is converted on first load and kept
+        }
+        try {
+            storage.setDurability(Durability.valueOf(System.getProperty(DURABILITY_PROPERTY, "").toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            // keep the default durability
+        }
+        if (Boolean.getBoolean(ASYNC_WRITES_PROPERTY)) {
+            long flushInterval = DEFAULT_FLUSH_INTERVAL_MILLIS;
+            try {
+                flushInterval = Math.max(0, Long.parseLong(System.getProperty(FLUSH_INTERVAL_PROPERTY, "")));
+            } catch (NumberFormatException e) {
+                // keep the default interval
+            }
+            storage.enableAsyncWrites(flushInterval); // Commands return before their record is written
+        }
+        return storage;
     }
 
     /**
      * Runs the application in console mode with continuous user input processing.
+     * Input is read through a buffered reader and responses are collected in a large output buffer that is
+     * only flushed once all input received so far has been handled, so piped input is processed in bulk
+     * while an interactive user still sees each response before being asked for the next command.
      */
     public void run() {
-        Scanner sc = new Scanner(System.in);
-        System.out.println(ui.showGreeting());
+        BufferedReader in = newConsoleReader();
+        PrintWriter out = newConsoleWriter();
+        out.println(ui.showGreeting());
+        out.flush();
 
-        while (true) {
-            String input = sc.nextLine();
+        try {
+            String input;
+            while ((input = in.readLine()) != null) {
+                try {
+                    Command command = parse(input); // Parse the user input into a command
+                    String response = execute(command); // Execute the command
+                    render(out, response);
 
-            if (input == null) {
-                break; // Exit the loop if input is null
+                    if (command.isExit()) break; // Exit if the command signals to quit
+
+                } catch (BugException e) {
+                    out.println(ui.showError(e.getMessage())); // Show error message if command fails
+                }
+
+                if (!in.ready()) {
+                    out.flush(); // About to wait for more input, so show everything answered so far
+                }
             }
+        } catch (IOException e) {
+            out.println(ui.showError("Failed to read input: " + e.getMessage()));
+        }
 
-            try {
-                Command command = Parser.parse(input); // Parse the user input into a command
-                String response = command.execute(tasks, ui, storage); // Execute the command
-                System.out.println(response);
+        out.flush();
+        storage.close();
+    }
 
-                if (command.isExit()) break; // Exit if the command signals to quit
+    /**
+     * Parses a line of input, recording the time taken as the parse phase and as a flight recorder event.
+     *
+     * @param input the line to parse
+     * @return the parsed command
+     */
+    private Command parse(String input) {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return Parser.parse(input);
+        } finally {
+            recorder.record(Phase.PARSE, System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.length = input == null ? 0 : input.length();
+                event.commit();
+            }
+        }
+    }
 
-            } catch (BugException e) {
-                System.out.println(ui.showError(e.getMessage())); // Show error message if command fails
+    /**
+     * Executes a command, recording the time taken as the execute phase, under the command's class and as a
+     * flight recorder event.
+     * Any saving the command does is included here and also recorded separately by storage.
+     *
+     * @param command the command to execute
+     * @return the response message
+     * @throws BugException if the command fails
+     */
+    private String execute(Command command) throws BugException {
+        ExecuteEvent event = new ExecuteEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return command.execute(tasks, ui, storage);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            recorder.record(Phase.EXECUTE, elapsed);
+            recorder.recordCommand(command.getClass().getSimpleName(), elapsed);
+            if (event.shouldCommit()) {
+                event.command = command.getClass().getSimpleName();
+                event.commit();
             }
         }
+    }
 
+    /**
+     * Writes a response to the console, recording the time taken as the render phase.
+     *
+     * @param out the console
+     * @param response the response to write
+     */
+    private void render(PrintWriter out, String response) {
+        long start = System.nanoTime();
+        out.println(response);
+        recorder.record(Phase.RENDER, System.nanoTime() - start);
+    }
+
+    /**
+     * Creates a buffered reader over standard input.
+     *
+     * @return the console reader
+     */
+    private static BufferedReader newConsoleReader() {
+        return new BufferedReader(new InputStreamReader(System.in, Charset.defaultCharset()), CONSOLE_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a buffered writer over standard output that only writes when flushed or full.
+     * It writes to the file descriptor directly, skipping the autoflushing {@link System#out}.
+     *
+     * @return the console writer
+     */
+    private static PrintWriter newConsoleWriter() {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(FileDescriptor.out), Charset.defaultCharset()), CONSOLE_BUFFER_SIZE), false);
+    }
+
+    /**
+     * Runs commands from a script without prompting, such as a nightly import piped in from a file.
+     * Commands are committed to storage in batches: nothing is written until a batch is complete, and then
+     * the whole batch is saved as a single snapshot. If a command fails, either by throwing or by standing in
+     * for invalid input, the commands since the last commit are rolled back and the script stops.
+     *
+     * @param in the script, one command per line
+     * @param batchSize how many commands to commit together, or 0 to commit once at the end
+     * @return true if every command succeeded
+     */
+    public boolean runScript(BufferedReader in, int batchSize) {
+        assert batchSize >= 0 : "batch size cannot be negative!";
+        PrintWriter out = newConsoleWriter();
+        int lineNumber = 0;
+        int pending = 0;
+        storage.beginBatch();
+
+        try {
+            String input;
+            while ((input = in.readLine()) != null) {
+                lineNumber++;
+                if (input.isBlank()) {
+                    continue;
+                }
+
+                Command command = parse(input);
+                String response = execute(command);
+                if (command.isError()) {
+                    throw new BugException(response);
+                }
+                render(out, response);
+                pending++;
+
+                if (command.isExit()) {
+                    break;
+                }
+                if (pending == batchSize) {
+                    storage.commitBatch(tasks);
+                    storage.beginBatch();
+                    pending = 0;
+                }
+            }
+            storage.commitBatch(tasks);
+            return true;
+        } catch (BugException | IOException | RuntimeException e) {
+            out.println(ui.showError("Line " + lineNumber + ": " + e.getMessage()));
+            rollBack(out, pending);
+            return false;
+        } finally {
+            out.flush();
+            storage.close();
+        }
+    }
+
+    /**
+     * Throws away the uncommitted commands of a failed script and restores the last committed tasks.
+     *
+     * @param out the console to report the rollback on
+     * @param pending how many commands ran since the last commit
+     */
+    private void rollBack(PrintWriter out, int pending) {
+        try {
+            tasks = new TaskList(storage.rollbackBatch());
+            out.println(ui.showError("Rolled back " + pending + " commands since the last commit."));
+        } catch (BugException e) {
+            out.println(ui.showError("Failed to reload tasks: " + e.getMessage()));
+        }
     }
 
     /**
      * Processes a single user input and returns the response.
-     * Used for GUI mode and testing.
+     * Used for GUI mode and testing. The window calls this from its command thread, so it must not touch
+     * any JavaFX nodes. Once an exit command has closed storage, later input is refused instead of run.
      *
      * @param input the user command to process
      * @return the response message
      */
     public String getResponse(String input) {
+        if (isClosed) {
+            return ui.showError("Bug has already exited, so nothing was saved!");
+        }
         if (input == null || input.trim().isEmpty()) {
             return ui.showError("Please enter a command!");
         }
 
         try {
-            Command cmd = Parser.parse(input); // Parse the input into a command
-            String response = cmd.execute(tasks, ui, storage); // Execute the command
+            Command cmd = parse(input); // Parse the input into a command
+            String response = execute(cmd); // Execute the command
 
             if (cmd.isExit()) {
+                close();
                 Platform.exit(); // Exit the JavaFX application if the exit command is issued
             }
 
@@ -95,6 +322,27 @@ public class Bug {
         }
     }
 
+    /**
+     * Returns whether storage has been closed, either by an exit command or by {@link #close()}.
+     *
+     * @return true if no more commands will be run
+     */
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    /**
+     * Writes out any pending changes and releases storage resources.
+     * Must not be called while a command is running; does nothing if storage is already closed.
+     */
+    public synchronized void close() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        storage.close();
+    }
+
     /**
      * Returns the application greeting message.
      *
@@ -106,12 +354,44 @@ public class Bug {
 
     /**
      * Main entry point for console application.
+     * With "--script FILE" the commands are read from FILE, or from standard input if FILE is "-", and
+     * committed in batches of the size given by "--commit-every N" (default: once at the end).
      *
-     * @param args command-line arguments (not used)
+     * @param args command-line arguments, empty for interactive mode
      */
     public static void main(String[] args) {
         Bug bug = new Bug(); // Create an instance of the Bug class
-        bug.run(); // Start the application
+        if (args.length == 0) {
+            bug.run(); // Start the application
+            return;
+        }
+
+        try {
+            String script = null;
+            int batchSize = 0;
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                if (args[i].equals("--script")) {
+                    script = args[i + 1];
+                } else if (args[i].equals("--commit-every")) {
+                    batchSize = Integer.parseInt(args[i + 1]);
+                }
+            }
+            if (script == null || batchSize < 0) {
+                System.err.println("Usage: --script FILE|- [--commit-every N]");
+                System.exit(2);
+            }
+
+            BufferedReader in = script.equals("-")
+                    ? newConsoleReader()
+                    : Files.newBufferedReader(Paths.get(script), StandardCharsets.UTF_8);
+            boolean isSuccessful;
+            try (in) {
+                isSuccessful = bug.runScript(in, batchSize);
+            }
+            System.exit(isSuccessful ? 0 : 1);
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Cannot run script: " + e.getMessage());
+            System.exit(2);
+        }
     }
 }
-
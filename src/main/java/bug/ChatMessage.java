@@ -0,0 +1,49 @@
+package bug;
+
+/**
+ * A single message in the chat transcript, either typed by the user or replied by Bug.
+ */
+public class ChatMessage {
+    private final String text;
+    private final boolean isFromUser;
+
+    /**
+     * Creates a chat message.
+     *
+     * @param text the message text
+     * @param isFromUser true if the user typed the message, false if it is Bug's reply
+     */
+    public ChatMessage(String text, boolean isFromUser) {
+        assert text != null : "message text should not be null!";
+        this.text = text;
+        this.isFromUser = isFromUser;
+    }
+
+    /**
+     * Returns the message text.
+     *
+     * @return the text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Indicates whether the user typed this message.
+     *
+     * @return true for user messages, false for Bug's replies
+     */
+    public boolean isFromUser() {
+        return isFromUser;
+    }
+
+    /**
+     * Formats the message as a line of the history file.
+     *
+     * @return the sender followed by the message text
+     */
+    @Override
+    public String toString() {
+        return (isFromUser ? "you: " : "bug: ") + text;
+    }
+}
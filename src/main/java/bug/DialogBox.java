@@ -1,13 +1,7 @@
 package bug;
-import java.io.IOException;
-import java.util.Collections;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
@@ -17,48 +11,67 @@ import javafx.scene.text.TextFlow;
 /**
  * Custom JavaFX component representing a dialog box in the chat interface.
  * Displays messages with accompanying display pictures for user and bot conversations.
- * Supports flipping layout to differentiate between user and bot messages.
+ * Bot messages are laid out mirrored to differentiate them from user messages.
+ * The nodes are built in code rather than loaded from FXML, since parsing the layout for every message was
+ * the main cost of showing one.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private TextFlow dialog; // The label that holds the text of the message
-    @FXML
-    private ImageView displayPicture; // The image view for the display picture
+    private static final String STYLESHEET = DialogBox.class.getResource("/css/dialog-box.css").toExternalForm();
+    private static final double PREF_WIDTH = 400.0;
+    private static final double PICTURE_SIZE = 99.0;
+    private static final Insets BOX_PADDING = new Insets(15.0, 5.0, 15.0, 5.0);
+    private static final Insets DIALOG_MARGIN = new Insets(0.0, 7.0, 0.0, 7.0);
+    private static final Insets DIALOG_PADDING = new Insets(6.0);
+
+    private final TextFlow dialog = new TextFlow(); // The flow that holds the text of the message
+    private final ImageView displayPicture = new ImageView(); // The image view for the display picture
+    private final Text textNode = new Text(); // The message itself, replaced when the box is reused
 
     /**
      * Creates a dialog box with the specified text and image.
      *
      * @param text the message text to display
      * @param img the display picture to show alongside the message
+     * @param isReply true to show the picture on the left, as for Bug's replies
      */
-    private DialogBox(String text, Image img) {
-        try {
-            // Load the FXML layout for the dialog box
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this); // Set this class as the controller for the FXML
-            fxmlLoader.setRoot(this); // Set the root element of the FXML to this instance
-            fxmlLoader.load(); // Load the FXML layout
-        } catch (IOException e) {
-            e.printStackTrace(); // Print the stack trace if loading fails
-        }
+    private DialogBox(String text, Image img, boolean isReply) {
+        getStylesheets().add(STYLESHEET);
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        setPrefWidth(PREF_WIDTH);
+        setPadding(BOX_PADDING);
+        setFillHeight(false);
 
-        Text textNode = new Text(text);
+        textNode.setText(text);
         textNode.getStyleClass().add("dialog-text");
         dialog.getChildren().add(textNode);
-        setFillHeight(false);
+        dialog.getStyleClass().add("text-flow");
+        dialog.setPadding(DIALOG_PADDING);
+        HBox.setMargin(dialog, DIALOG_MARGIN);
+
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
         displayPicture.setImage(img); // Set the display picture image
+
+        if (isReply) {
+            setAlignment(Pos.TOP_LEFT);
+            dialog.getStyleClass().add("reply-text-flow"); // Add a style class for the reply
+            getChildren().addAll(displayPicture, dialog);
+        } else {
+            setAlignment(Pos.TOP_RIGHT);
+            getChildren().addAll(dialog, displayPicture);
+        }
     }
 
     /**
-     * Flips the dialog box layout to show image on the left and text on the right.
-     * Used for bot messages to differentiate from user messages.
+     * Replaces the message shown, so a list cell can reuse the box for another message.
+     *
+     * @param text the new message text
      */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp); // Reverse the order of the children nodes
-        getChildren().setAll(tmp); // Update the children of this HBox with the reversed nodes
-        setAlignment(Pos.TOP_LEFT); // Align the content to the top-left
-        dialog.getStyleClass().add("reply-text-flow"); // Add a style class for the reply
+    void setText(String text) {
+        textNode.setText(text);
     }
 
     /**
@@ -69,7 +82,7 @@ public class DialogBox extends HBox {
      * @return a new dialog box formatted for user messages
      */
     public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img); // Return a new dialog box for the user
+        return new DialogBox(text, img, false); // Return a new dialog box for the user
     }
 
     /**
@@ -77,11 +90,9 @@ public class DialogBox extends HBox {
      *
      * @param text the bot's response text
      * @param img the bot's display picture
-     * @return a new flipped dialog box formatted for bot messages
+     * @return a new mirrored dialog box formatted for bot messages
      */
     public static DialogBox getBugDialog(String text, Image img) {
-        var db = new DialogBox(text, img); // Create a new dialog box for the bug
-        db.flip(); // Flip the dialog box to position the image and text correctly
-        return db;
+        return new DialogBox(text, img, true); // Return a new mirrored dialog box for the bug
     }
 }
\ No newline at end of file
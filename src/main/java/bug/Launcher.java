@@ -9,10 +9,16 @@ public class Launcher {
 
     /**
      * Main entry point for launching the JavaFX Bug application.
+     * Scripts given with "--script" run in the console instead, without opening a window.
      *
      * @param args command-line arguments passed to the application
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--script")) {
+            Bug.main(args);
+            return;
+        }
+
         // Launch the main JavaFX application
         Application.launch(Main.class, args);
     }
@@ -15,6 +15,7 @@ import java.io.IOException;
 public class Main extends Application {
 
     private Bug bug = new Bug(); // The core logic of the task management app
+    private MainWindow mainWindow; // The controller of the window, once it is shown
 
     /**
      * Starts the JavaFX application by loading the main window and setting up the scene.
@@ -39,7 +40,8 @@ public class Main extends Application {
             stage.setMinWidth(417);
 
             // Set the controller for the main window and pass the Bug instance to it
-            fxmlLoader.<MainWindow>getController().setBug(bug);
+            mainWindow = fxmlLoader.getController();
+            mainWindow.setBug(bug);
 
             // Show the stage (the application window)
             stage.show();
@@ -47,4 +49,15 @@ public class Main extends Application {
             e.printStackTrace(); // Print the stack trace if loading the FXML fails
         }
     }
+
+    /**
+     * Writes out pending changes and the chat history when the application window is closed.
+     */
+    @Override
+    public void stop() {
+        if (mainWindow != null) {
+            mainWindow.close(); // Let running commands finish before storage is closed under them
+        }
+        bug.close();
+    }
 }
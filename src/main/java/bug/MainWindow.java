@@ -1,42 +1,62 @@
 package bug;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
+import metrics.LatencyRecorder;
 
 /**
  * Controller for the main JavaFX window of the Bug application.
  * Handles user input, displays chat dialogs, and manages the GUI interaction flow.
  * Coordinates between user interface elements and the Bug application logic.
+ * Commands run one at a time on a background thread, so a slow command never freezes the window and
+ * the task list is only ever changed by that one thread.
  */
 public class MainWindow extends AnchorPane {
+    private static final long SHUTDOWN_REPORT_SECONDS = 5;
 
     @FXML
-    private ScrollPane scrollPane; // The scrollable container for the dialog box
-    @FXML
-    private VBox dialogContainer; // The container holding the dialog boxes
+    private ListView<ChatMessage> transcriptView; // The list showing the most recent messages
     @FXML
     private TextField userInput; // Text field for the user's input
     @FXML
     private Button sendButton; // Button for sending user input
+    @FXML
+    private ProgressIndicator pendingIndicator; // Spinner shown while commands are running
 
     private Bug bug; // The core application logic
+    private final Transcript transcript = Transcript.fromProperties(); // The messages shown in the list
+    private final ExecutorService commandRunner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bug-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int pendingCommands; // Commands submitted but not yet answered, only touched on the FX thread
 
-    // Default images for user and bug
-    private Image userImage = new Image(this.getClass().getResourceAsStream("/images/sonny1.png"));
-    private Image bugImage = new Image(this.getClass().getResourceAsStream("/images/sonny2.png"));
+    // Default images for user and bug, decoded once and shared by every dialog box
+    private static final Image USER_IMAGE = new Image(MainWindow.class.getResourceAsStream("/images/sonny1.png"));
+    private static final Image BUG_IMAGE = new Image(MainWindow.class.getResourceAsStream("/images/sonny2.png"));
 
     /**
-     * Initializes the main window by setting up scroll behavior.
+     * Initializes the main window by connecting the transcript to the list view.
+     * Only the visible messages get dialog boxes, which are reused as the list scrolls.
      */
     @FXML
-    public void initialise() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+    public void initialize() {
+        transcriptView.setItems(transcript.getMessages());
+        transcriptView.setCellFactory(view -> new MessageCell(view, USER_IMAGE, BUG_IMAGE));
+        transcriptView.setFocusTraversable(false);
+        pendingIndicator.setVisible(false);
     }
 
     /**
@@ -47,27 +67,91 @@ public class MainWindow extends AnchorPane {
     public void setBug(Bug b) {
         bug = b;
         String greeting = bug.greeting();
-        dialogContainer.getChildren().add(DialogBox.getBugDialog(greeting, bugImage));
+        transcript.add(new ChatMessage(greeting, false));
     }
 
     /**
      * Handles user input when the send button is pressed or enter key is hit.
-     * Processes the command through Bug and displays both user input and bot response.
+     * Shows the user's message straight away and hands the command to the background thread. Bug's
+     * response is added once the command finishes, and commands sent in the meantime are queued in order.
      */
     @FXML
     private void handleUserInput() {
+        if (commandRunner.isShutdown()) {
+            return; // Bug has exited; the window is only waiting to close
+        }
         String input = userInput.getText();
-        String response = bug.getResponse(input);
+        userInput.clear();
+        addMessages(new ChatMessage(input, true));
+        setPending(pendingCommands + 1);
 
-        // Add the user dialog and bug response to the dialog container
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getBugDialog(response, bugImage)
-        );
+        CompletableFuture.supplyAsync(() -> bug.getResponse(input), commandRunner)
+                .exceptionally(e -> "Something went wrong! Please try again.")
+                .thenAccept(response -> Platform.runLater(() -> {
+                    setPending(pendingCommands - 1);
+                    addMessages(new ChatMessage(response, false));
+                    if (bug.isClosed()) {
+                        stopAcceptingCommands();
+                    }
+                }));
+    }
 
-        userInput.clear();
-        Platform.runLater(() -> {
-            scrollPane.setVvalue(1.0);
-        });
+    /**
+     * Adds messages to the transcript and scrolls to the newest one, recording the time taken as the
+     * render phase. Must be called on the JavaFX application thread.
+     *
+     * @param messages the messages to add
+     */
+    private void addMessages(ChatMessage... messages) {
+        long start = System.nanoTime();
+        transcript.add(messages);
+        transcriptView.scrollTo(transcript.getMessages().size() - 1); // Already on the FX thread
+        LatencyRecorder.getDefault().record(LatencyRecorder.Phase.RENDER, System.nanoTime() - start);
+    }
+
+    /**
+     * Updates the number of running commands and shows the spinner while there are any.
+     *
+     * @param count the number of commands still waiting for a response
+     */
+    private void setPending(int count) {
+        assert count >= 0 : "pending command count cannot be negative!";
+        pendingCommands = count;
+        pendingIndicator.setVisible(count > 0);
+    }
+
+    /**
+     * Drops the commands queued behind an exit command and disables the input, since storage is closed.
+     * Commands that start before this runs are refused by {@link Bug#getResponse(String)}.
+     */
+    private void stopAcceptingCommands() {
+        commandRunner.shutdownNow();
+        userInput.setDisable(true);
+        sendButton.setDisable(true);
+        setPending(0);
+    }
+
+    /**
+     * Lets any queued commands finish, then writes out the chat history, if it is being kept.
+     * Waits for as long as the running command takes, since storage must not be closed under it.
+     */
+    public void close() {
+        commandRunner.shutdown();
+        boolean isInterrupted = false;
+        boolean isReported = false;
+        while (!commandRunner.isTerminated()) {
+            try {
+                if (!commandRunner.awaitTermination(SHUTDOWN_REPORT_SECONDS, TimeUnit.SECONDS) && !isReported) {
+                    System.err.println("Waiting for the running command to finish before saving...");
+                    isReported = true;
+                }
+            } catch (InterruptedException e) {
+                isInterrupted = true; // Keep waiting, then restore the interrupt
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        transcript.close();
     }
 }
@@ -0,0 +1,102 @@
+package bug;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+import metrics.RenderEvent;
+
+/**
+ * List cell showing one chat message as a dialog box.
+ * The list view only creates enough cells to fill the window and reuses them while scrolling, and each cell
+ * keeps one user box and one reply box that it fills with whichever message it is given.
+ */
+public class MessageCell extends ListCell<ChatMessage> {
+    private static final double SCROLL_BAR_ALLOWANCE = 20;
+
+    private final ListView<ChatMessage> listView;
+    private final Image userImage;
+    private final Image bugImage;
+    private DialogBox userBox;
+    private DialogBox bugBox;
+
+    /**
+     * Creates a cell for the given list view.
+     *
+     * @param listView the list view the cell belongs to, whose width the dialog boxes follow
+     * @param userImage the user's display picture
+     * @param bugImage Bug's display picture
+     */
+    public MessageCell(ListView<ChatMessage> listView, Image userImage, Image bugImage) {
+        this.listView = listView;
+        this.userImage = userImage;
+        this.bugImage = bugImage;
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setPrefWidth(0); // Let the list view decide the width instead of the widest message
+    }
+
+    /**
+     * Shows a message, or nothing if the cell is empty.
+     * The time taken is recorded as a flight recorder event, whether the box is created or reused.
+     *
+     * @param message the message to show
+     * @param isEmpty true if the cell does not hold a message
+     */
+    @Override
+    protected void updateItem(ChatMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+
+        RenderEvent event = new RenderEvent();
+        event.begin();
+        boolean isReused = (message.isFromUser() ? userBox : bugBox) != null;
+        DialogBox box = message.isFromUser() ? getUserBox(message.getText()) : getBugBox(message.getText());
+        box.setText(message.getText());
+        setGraphic(box);
+        if (event.shouldCommit()) {
+            event.length = message.getText().length();
+            event.isReused = isReused;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the cell's box for user messages, creating it on first use.
+     *
+     * @param text the message to create the box with
+     * @return the user box
+     */
+    private DialogBox getUserBox(String text) {
+        if (userBox == null) {
+            userBox = fitToList(DialogBox.getUserDialog(text, userImage));
+        }
+        return userBox;
+    }
+
+    /**
+     * Returns the cell's box for Bug's replies, creating it on first use.
+     *
+     * @param text the message to create the box with
+     * @return the reply box
+     */
+    private DialogBox getBugBox(String text) {
+        if (bugBox == null) {
+            bugBox = fitToList(DialogBox.getBugDialog(text, bugImage));
+        }
+        return bugBox;
+    }
+
+    /**
+     * Makes a dialog box as wide as the list view, leaving room for the scroll bar.
+     *
+     * @param box the dialog box
+     * @return the same box
+     */
+    private DialogBox fitToList(DialogBox box) {
+        box.prefWidthProperty().bind(listView.widthProperty().subtract(SCROLL_BAR_ALLOWANCE));
+        return box;
+    }
+}
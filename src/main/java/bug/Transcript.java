@@ -0,0 +1,172 @@
+package bug;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * The messages shown in the chat window, capped at a fixed number so a long session does not keep growing.
+ * Once the cap is reached the oldest messages are dropped, and optionally appended to a history file first
+ * so nothing is lost. The history file is written on a background thread so the window never waits for it.
+ */
+public class Transcript {
+    /** System property naming the file that messages dropped from the window are appended to. */
+    public static final String HISTORY_FILE_PROPERTY = "bug.history.file";
+    /** The default number of messages kept on screen. */
+    public static final int DEFAULT_CAPACITY = 500;
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final ObservableList<ChatMessage> messages = FXCollections.observableArrayList();
+    private final int capacity;
+    private final BufferedWriter history; // Only used on the history thread once the transcript is created
+    private final ExecutorService historyWriter;
+
+    /**
+     * Creates a transcript that keeps at most the given number of messages.
+     *
+     * @param capacity the maximum number of messages kept
+     * @param historyFile the file to append dropped messages to, or null to discard them
+     */
+    public Transcript(int capacity, Path historyFile) {
+        assert capacity > 0 : "transcript capacity must be positive!";
+        this.capacity = capacity;
+        this.history = openHistory(historyFile);
+        this.historyWriter = history == null ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bug-history");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a transcript with the default capacity that spills to the file named by the
+     * {@value #HISTORY_FILE_PROPERTY} system property, if it is set.
+     *
+     * @return the transcript
+     */
+    public static Transcript fromProperties() {
+        String file = System.getProperty(HISTORY_FILE_PROPERTY);
+        return new Transcript(DEFAULT_CAPACITY, file == null || file.isBlank() ? null : Path.of(file));
+    }
+
+    /**
+     * Returns the messages currently kept, oldest first, for a list view to observe.
+     *
+     * @return the live list of messages
+     */
+    public ObservableList<ChatMessage> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Appends messages, dropping the oldest ones if the transcript would exceed its capacity.
+     * Only the dropped and appended messages are reported as changed, so a list view keeps the cells of the
+     * messages that stay instead of rebinding every one of them.
+     *
+     * @param added the messages to append
+     */
+    public void add(ChatMessage... added) {
+        int excess = messages.size() + added.length - capacity;
+        if (excess <= 0) {
+            messages.addAll(added);
+            return;
+        }
+
+        int removed = Math.min(excess, messages.size());
+        List<ChatMessage> dropped = new ArrayList<>(messages.subList(0, removed));
+        dropped.addAll(Arrays.asList(added).subList(0, excess - removed));
+        spill(dropped);
+        messages.remove(0, removed);
+        messages.addAll(Arrays.asList(added).subList(excess - removed, added.length));
+    }
+
+    /**
+     * Writes out the remaining history and closes the history file, if any.
+     */
+    public void close() {
+        if (history == null) {
+            return;
+        }
+        historyWriter.shutdown();
+        try {
+            if (!historyWriter.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Gave up waiting for the chat history to be written.");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            history.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close chat history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues messages that are about to be dropped to be appended to the history file, if any.
+     * The history thread flushes after each batch, so a crash loses at most the messages still queued.
+     *
+     * @param dropped the messages being dropped
+     */
+    private void spill(List<ChatMessage> dropped) {
+        if (history == null || dropped.isEmpty()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(dropped.size());
+        for (ChatMessage message : dropped) {
+            lines.add(message.toString());
+        }
+        historyWriter.execute(() -> writeHistory(lines));
+    }
+
+    /**
+     * Appends lines to the history file. Runs on the history thread.
+     *
+     * @param lines the lines to append
+     */
+    private void writeHistory(List<String> lines) {
+        try {
+            for (String line : lines) {
+                history.write(line);
+                history.newLine();
+            }
+            history.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to write chat history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the history file for appending.
+     *
+     * @param historyFile the file, or null for no history
+     * @return the writer, or null if there is no history file or it cannot be opened
+     */
+    private static BufferedWriter openHistory(Path historyFile) {
+        if (historyFile == null) {
+            return null;
+        }
+        try {
+            return Files.newBufferedWriter(historyFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Failed to open chat history: " + e.getMessage());
+            return null;
+        }
+    }
+}
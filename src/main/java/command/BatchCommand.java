@@ -0,0 +1,182 @@
+package command;
+
+import exception.BugException;
+import storage.Storage;
+import task.Task;
+import task.TaskList;
+import ui.Ui;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Command to mark, unmark, delete or snooze many tasks at once.
+ * The whole batch is applied before anything is saved, then persisted as a single journal record
+ * and summarised in a single response.
+ */
+public class BatchCommand extends Command {
+
+    /**
+     * The operations that can be applied to a batch of tasks.
+     */
+    public enum Operation {
+        MARK, UNMARK, DELETE, SNOOZE
+    }
+
+    private final Operation operation;
+    private final TaskSelector selector;
+    private final String durationString;
+
+    /**
+     * Creates a new batch command for an operation that takes no arguments.
+     *
+     * @param operation the operation to apply to every selected task
+     * @param selector the tasks to apply it to
+     */
+    public BatchCommand(Operation operation, TaskSelector selector) {
+        this(operation, selector, null);
+    }
+
+    /**
+     * Creates a new batch command.
+     *
+     * @param operation the operation to apply to every selected task
+     * @param selector the tasks to apply it to
+     * @param durationString the duration to snooze by, e.g. "3d" or "1d4h30m", or null for other operations
+     */
+    public BatchCommand(Operation operation, TaskSelector selector, String durationString) {
+        assert operation != Operation.SNOOZE || durationString != null : "snooze needs a duration!";
+        this.operation = operation;
+        this.selector = selector;
+        this.durationString = durationString;
+    }
+
+    /**
+     * Executes the batch command on every selected task.
+     *
+     * @param tasks the task list containing the tasks
+     * @param ui the user interface for displaying the summary
+     * @param storage the storage system for persisting changes
+     * @return summary of the tasks that were changed
+     * @throws BugException if a selected index is out of range, the duration is invalid, or storage fails
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws BugException {
+        int[] indices = selector.select(tasks);
+        if (indices.length == 0) {
+            return ui.showBatch("changed", new ArrayList<>(), 0);
+        }
+
+        switch (operation) {
+            case MARK:
+                return mark(tasks, ui, storage, indices);
+            case UNMARK:
+                return unmark(tasks, ui, storage, indices);
+            case DELETE:
+                return delete(tasks, ui, storage, indices);
+            case SNOOZE:
+                return snooze(tasks, ui, storage, indices);
+            default:
+                throw new BugException("Unknown batch operation!");
+        }
+    }
+
+    /**
+     * Marks every selected task as done.
+     *
+     * @param tasks the task list
+     * @param ui the user interface
+     * @param storage the storage system
+     * @param indices the selected indices in ascending order
+     * @return summary of the marked tasks
+     * @throws BugException if storage fails
+     */
+    private static String mark(TaskList tasks, Ui ui, Storage storage, int[] indices) throws BugException {
+        ArrayList<Task> marked = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            Task task = tasks.get(index);
+            task.markAsDone();
+            marked.add(task);
+        }
+        storage.saveMarked(tasks, indices);
+        return ui.showBatch("marked", marked, 0);
+    }
+
+    /**
+     * Marks every selected task as not done.
+     *
+     * @param tasks the task list
+     * @param ui the user interface
+     * @param storage the storage system
+     * @param indices the selected indices in ascending order
+     * @return summary of the unmarked tasks
+     * @throws BugException if storage fails
+     */
+    private static String unmark(TaskList tasks, Ui ui, Storage storage, int[] indices) throws BugException {
+        ArrayList<Task> unmarked = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            Task task = tasks.get(index);
+            task.markAsUndone();
+            unmarked.add(task);
+        }
+        storage.saveUnmarked(tasks, indices);
+        return ui.showBatch("unmarked", unmarked, 0);
+    }
+
+    /**
+     * Deletes every selected task, from the highest index down so the remaining indices stay valid.
+     *
+     * @param tasks the task list
+     * @param ui the user interface
+     * @param storage the storage system
+     * @param indices the selected indices in ascending order
+     * @return summary of the deleted tasks
+     * @throws BugException if storage fails
+     */
+    private static String delete(TaskList tasks, Ui ui, Storage storage, int[] indices) throws BugException {
+        int[] descending = new int[indices.length];
+        Task[] deleted = new Task[indices.length];
+        for (int i = indices.length - 1; i >= 0; i--) {
+            descending[indices.length - 1 - i] = indices[i];
+            deleted[i] = tasks.delete(indices[i]);
+        }
+        storage.saveDeleted(tasks, descending);
+        return ui.showBatch("removed", new ArrayList<>(Arrays.asList(deleted)), 0);
+    }
+
+    /**
+     * Snoozes every selected task that can be snoozed, skipping completed tasks and todos.
+     *
+     * @param tasks the task list
+     * @param ui the user interface
+     * @param storage the storage system
+     * @param indices the selected indices in ascending order
+     * @return summary of the snoozed tasks and how many were skipped
+     * @throws BugException if the duration is invalid or storage fails
+     */
+    private String snooze(TaskList tasks, Ui ui, Storage storage, int[] indices) throws BugException {
+        Duration duration = DurationParser.parse(durationString);
+        if (duration == null) {
+            throw new BugException("Invalid duration. use numbers followed by w, d, h or m (eg 2h or 1d4h30m)!");
+        }
+
+        int[] snoozedIndices = new int[indices.length];
+        ArrayList<Task> snoozed = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            if (tasks.get(index).isDone()) {
+                continue;
+            }
+            try {
+                snoozed.add(tasks.snooze(index, duration));
+                snoozedIndices[snoozed.size() - 1] = index;
+            } catch (BugException e) {
+                // Todos have no dates to move; leave them out of the batch
+            }
+        }
+        if (!snoozed.isEmpty()) {
+            storage.saveSnoozed(tasks, Arrays.copyOf(snoozedIndices, snoozed.size()), duration);
+        }
+        return ui.showBatch("snoozed", snoozed, indices.length - snoozed.size());
+    }
+}
@@ -0,0 +1,63 @@
+package command;
+
+import exception.BugException;
+import storage.Storage;
+import task.Task;
+import task.TaskList;
+import ui.Ui;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+
+/**
+ * Command to list the events taking place at a moment or overlapping a window of time.
+ * Answers from the event interval tree instead of checking every task.
+ */
+public class BusyCommand extends Command {
+
+    private static final DateTimeFormatter INPUT_DT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+
+    private final String from;
+    private final String to;
+
+    /**
+     * Creates a busy command.
+     *
+     * @param from the moment, or the start of the window, in yyyy-MM-dd HHmm format
+     * @param to the end of the window in yyyy-MM-dd HHmm format, or null to look up a single moment
+     */
+    public BusyCommand(String from, String to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Executes the busy command by querying the event index.
+     *
+     * @param tasks the task list to search
+     * @param ui the user interface for displaying the events
+     * @param storage the storage system (unused)
+     * @return message listing the events with their list numbers
+     * @throws BugException if a time is invalid or the window is empty
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws BugException {
+        try {
+            LocalDateTime start = LocalDateTime.parse(from, INPUT_DT);
+            if (to == null) {
+                return ui.showBusyTasks(tasks.findEventsAt(start), tasks);
+            }
+
+            LocalDateTime end = LocalDateTime.parse(to, INPUT_DT);
+            if (!start.isBefore(end)) {
+                throw new BugException("The start of the window must be before its end!");
+            }
+            ArrayList<Task> matches = tasks.findEventsOverlapping(start, end);
+            return ui.showBusyTasks(matches, tasks);
+        } catch (DateTimeParseException e) {
+            throw new BugException("Invalid datetime. use yyyy-MM-dd HHmm (eg 2005-11-27 1800)!");
+        }
+    }
+}
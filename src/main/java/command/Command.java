@@ -31,4 +31,13 @@ public abstract class Command {
     public boolean isExit() {
         return false; // Default behavior is that the command doesn't exit the application
     }
+
+    /**
+     * Indicates whether this command only reports input that could not be understood.
+     *
+     * @return true if the command stands in for invalid input
+     */
+    public boolean isError() {
+        return false;
+    }
 }
@@ -48,7 +48,7 @@ public class DeadlineCommand extends Command {
             LocalDate by2 = LocalDate.parse(dueDate, INPUT_DT);
             Deadlines deadline = new Deadlines(description, by2);
             tasks.add(deadline);
-            storage.update(tasks);
+            storage.saveAdded(tasks, deadline);
             return ui.showDeadline(deadline, tasks);
         } catch (DateTimeParseException e) {
             throw new BugException("Invalid date format. Use yyyy-MM-dd (e.g., 2005-11-27)");
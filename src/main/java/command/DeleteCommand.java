@@ -38,7 +38,7 @@ public class DeleteCommand extends Command {
         validateIndex(tasks);
 
         Task task = tasks.delete(index);
-        storage.update(tasks);
+        storage.saveDeleted(tasks, index);
         return ui.showDeleted(task, tasks);
     }
 
@@ -0,0 +1,86 @@
+package command;
+
+import exception.BugException;
+import storage.Storage;
+import task.Task;
+import task.TaskList;
+import ui.Ui;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+
+/**
+ * Command to list the deadlines falling due within a window of days.
+ * The window is either an explicit pair of dates or a duration such as "7d", "2w" or "36h" starting now,
+ * which covers every day up to the one the duration ends on.
+ */
+public class DueCommand extends Command {
+
+    private static final DateTimeFormatter INPUT_DT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final String from;
+    private final String to;
+    private final Duration window;
+
+    /**
+     * Creates a due command for an explicit window.
+     *
+     * @param from the first day of the window in yyyy-MM-dd format
+     * @param to the last day of the window in yyyy-MM-dd format, inclusive
+     */
+    public DueCommand(String from, String to) {
+        this.from = from;
+        this.to = to;
+        this.window = null;
+    }
+
+    /**
+     * Creates a due command for a window starting now.
+     *
+     * @param window how far ahead to look
+     */
+    public DueCommand(Duration window) {
+        assert window != null && !window.isNegative() : "due window cannot be negative!";
+        this.from = null;
+        this.to = null;
+        this.window = window;
+    }
+
+    /**
+     * Executes the due command by looking the window up in the deadline index.
+     *
+     * @param tasks the task list to search
+     * @param ui the user interface for displaying the deadlines
+     * @param storage the storage system (unused)
+     * @return message listing the deadlines in the window with their list numbers
+     * @throws BugException if a date is invalid or the window is reversed
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws BugException {
+        LocalDate start;
+        LocalDate end;
+        if (window != null) {
+            LocalDateTime now = LocalDateTime.now();
+            start = now.toLocalDate();
+            end = now.plus(window).toLocalDate();
+        } else {
+            try {
+                start = LocalDate.parse(from, INPUT_DT);
+                end = LocalDate.parse(to, INPUT_DT);
+            } catch (DateTimeParseException e) {
+                throw new BugException("Invalid date format. Use yyyy-MM-dd (e.g., 2005-11-27)");
+            }
+        }
+
+        if (start.isAfter(end)) {
+            throw new BugException("The start of the window must not be after its end!");
+        }
+
+        ArrayList<Task> matches = tasks.findDueBetween(start, end);
+        return ui.showDueTasks(matches, tasks);
+    }
+}
@@ -0,0 +1,54 @@
+package command;
+
+import java.time.Duration;
+
+/**
+ * Parses durations such as "3d", "2w" or "1d4h30m" by scanning the characters once.
+ * A duration is one or more amounts, each followed by a unit: w (weeks), d (days), h (hours) or m (minutes).
+ * Units must appear from largest to smallest and at most once each. No pattern is compiled, so parsing
+ * the same duration for every task in a bulk snooze costs next to nothing.
+ */
+public final class DurationParser {
+    private static final String UNITS = "wdhm";
+    private static final long[] UNIT_MINUTES = {7 * 24 * 60, 24 * 60, 60, 1};
+    private static final int MAX_DIGITS = 9;
+
+    private DurationParser() {
+    }
+
+    /**
+     * Parses a duration.
+     *
+     * @param text the duration, e.g. "30m", "2w" or "1d4h30m"
+     * @return the duration, or null if the text is not a valid duration
+     */
+    public static Duration parse(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+
+        long minutes = 0;
+        int nextUnit = 0;
+        int i = 0;
+        while (i < text.length()) {
+            int start = i;
+            long amount = 0;
+            while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                amount = amount * 10 + (text.charAt(i) - '0');
+                i++;
+            }
+            if (i == start || i - start > MAX_DIGITS || i == text.length()) {
+                return null;
+            }
+
+            int unit = UNITS.indexOf(text.charAt(i), nextUnit);
+            if (unit < 0) {
+                return null;
+            }
+            minutes += amount * UNIT_MINUTES[unit];
+            nextUnit = unit + 1;
+            i++;
+        }
+        return Duration.ofMinutes(minutes);
+    }
+}
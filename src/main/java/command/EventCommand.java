@@ -3,15 +3,19 @@ package command;
 import exception.BugException;
 import storage.Storage;
 import task.Events;
+import task.Task;
 import task.TaskList;
 import ui.Ui;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 
 /**
  * Command to create an event task with start and end times.
  * Parses task description and time range, then adds the event to the list.
+ * Warns about existing events that overlap the new one.
  */
 public class EventCommand extends Command {
 
@@ -41,7 +45,7 @@ public class EventCommand extends Command {
      * @param ui the user interface for displaying confirmation
      * @param storage the storage system for persisting the task
      * @return confirmation message showing the created event
-     * @throws BugException if any field is empty or datetime format is invalid
+     * @throws BugException if any field is empty, the datetime format is invalid or saving fails
      */
     @Override
     public String execute(TaskList tasks, Ui ui, Storage storage) throws BugException {
@@ -59,15 +63,35 @@ public class EventCommand extends Command {
         }
 
         // Parse the start and end times
+        LocalDateTime start2;
+        LocalDateTime end2;
         try {
-            LocalDateTime start2 = LocalDateTime.parse(startTime, INPUT_DT);
-            LocalDateTime end2 = LocalDateTime.parse(endTime, INPUT_DT);
-            Events event = new Events(description, start2, end2);
-            tasks.add(event); // Add the event to the task list
-            storage.update(tasks); // Update storage with the new task list
-            return ui.showEvent(event, tasks); // Show the event in the UI
-        } catch (Exception e) {
+            start2 = LocalDateTime.parse(startTime, INPUT_DT);
+            end2 = LocalDateTime.parse(endTime, INPUT_DT);
+        } catch (DateTimeParseException e) {
             throw new BugException("Invalid datetime. use yyyy-MM-dd HHmm (eg 2005-11-27 1800)!");
         }
+
+        Events event = new Events(description, start2, end2);
+        tasks.add(event); // Add the event to the task list
+        storage.saveAdded(tasks, event); // Append the new task to storage
+        return ui.showEvent(event, tasks) + showConflicts(event, tasks, ui); // Show the event in the UI
+    }
+
+    /**
+     * Looks up the other events overlapping a new event.
+     *
+     * @param event the event that was just added
+     * @param tasks the task list holding it
+     * @param ui the user interface for formatting the warning
+     * @return a warning on its own paragraph, or an empty string if there is no clash
+     */
+    private static String showConflicts(Events event, TaskList tasks, Ui ui) {
+        ArrayList<Task> conflicts = tasks.findEventsOverlapping(event.getStart(), event.getEnd());
+        conflicts.remove(event);
+        if (conflicts.isEmpty()) {
+            return "";
+        }
+        return "\n\n" + ui.showConflicts(conflicts, tasks);
     }
 }
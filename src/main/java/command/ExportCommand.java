@@ -0,0 +1,48 @@
+package command;
+
+import exception.BugException;
+import storage.Storage;
+import task.TaskList;
+import ui.Ui;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Command to write a readable copy of every task to a file of the user's choice.
+ * The copy uses the pipe-separated text format, even when tasks are stored in binary.
+ */
+public class ExportCommand extends Command {
+
+    private final String fileName;
+
+    /**
+     * Creates a new export command for the given file.
+     *
+     * @param fileName the file to write the tasks to
+     */
+    public ExportCommand(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Executes the export command by writing all tasks to the file.
+     *
+     * @param tasks the task list to export
+     * @param ui the user interface for confirming the export
+     * @param storage the storage system that writes the file
+     * @return confirmation message naming the file
+     * @throws BugException if the file name is invalid or the file cannot be written
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws BugException {
+        Path destination;
+        try {
+            destination = Path.of(fileName);
+        } catch (InvalidPathException e) {
+            throw new BugException("'" + fileName + "' is not a valid file name!");
+        }
+        storage.exportText(tasks, destination);
+        return ui.showExported(tasks.size(), destination.toString());
+    }
+}
@@ -10,11 +10,13 @@ import java.util.ArrayList;
 
 /**
  * Command to search for tasks containing a specific keyword.
- * Searches task descriptions and returns matching tasks.
+ * Searches task descriptions and returns matching tasks, either by substring or by whole words.
  */
 public class FindCommand extends Command {
 
     private final String keyword;
+    private final boolean isWholeWord;
+    private final boolean isIgnoreCase;
 
     /**
      * Creates a new find command with the specified search keyword.
@@ -22,7 +24,20 @@ public class FindCommand extends Command {
      * @param keyword the text to search for in task descriptions
      */
     public FindCommand(String keyword) {
+        this(keyword, false, false);
+    }
+
+    /**
+     * Creates a new find command that matches either substrings or whole words.
+     *
+     * @param keyword the text to search for in task descriptions
+     * @param isWholeWord whether every word of the keyword must appear as a whole word
+     * @param isIgnoreCase whether upper and lower case letters match each other
+     */
+    public FindCommand(String keyword, boolean isWholeWord, boolean isIgnoreCase) {
         this.keyword = keyword;
+        this.isWholeWord = isWholeWord;
+        this.isIgnoreCase = isIgnoreCase;
     }
 
     /**
@@ -42,7 +57,9 @@ public class FindCommand extends Command {
         }
 
         // Search for tasks that contain the keyword in their description
-        ArrayList<Task> matches = tasks.findTasks(keyword);
+        ArrayList<Task> matches = isWholeWord
+                ? tasks.findWholeWords(keyword, isIgnoreCase)
+                : tasks.findTasks(keyword, isIgnoreCase);
 
         // Return the result to the user
         return ui.showFoundTasks(matches);
@@ -0,0 +1,72 @@
+package command;
+
+import exception.BugException;
+import storage.Storage;
+import task.TaskList;
+import task.TimeSlot;
+import ui.Ui;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+
+/**
+ * Command to find the earliest gaps between events that are long enough for a new one.
+ * Sweeps the event interval tree instead of comparing every pair of events.
+ */
+public class FreeSlotCommand extends Command {
+
+    private static final DateTimeFormatter INPUT_DT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final int MAX_SLOTS = 5;
+
+    private final String durationString;
+    private final String from;
+    private final String to;
+
+    /**
+     * Creates a free slot command.
+     *
+     * @param durationString the shortest gap wanted, in a format such as "3d", "5h" or "1d4h30m"
+     * @param from the start of the window in yyyy-MM-dd HHmm format
+     * @param to the end of the window in yyyy-MM-dd HHmm format
+     */
+    public FreeSlotCommand(String durationString, String from, String to) {
+        this.durationString = durationString;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Executes the free slot command by sweeping the events in the window.
+     *
+     * @param tasks the task list to search
+     * @param ui the user interface for displaying the slots
+     * @param storage the storage system (unused)
+     * @return message listing up to five of the earliest free slots
+     * @throws BugException if the duration or a time is invalid, or the window is empty
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws BugException {
+        Duration length = DurationParser.parse(durationString);
+        if (length == null || length.isZero()) {
+            throw new BugException("Invalid duration. use numbers followed by w, d, h or m (eg 2h or 1d4h30m)!");
+        }
+
+        LocalDateTime start;
+        LocalDateTime end;
+        try {
+            start = LocalDateTime.parse(from, INPUT_DT);
+            end = LocalDateTime.parse(to, INPUT_DT);
+        } catch (DateTimeParseException e) {
+            throw new BugException("Invalid datetime. use yyyy-MM-dd HHmm (eg 2005-11-27 1800)!");
+        }
+        if (!start.isBefore(end)) {
+            throw new BugException("The start of the window must be before its end!");
+        }
+
+        ArrayList<TimeSlot> slots = tasks.findFreeSlots(start, end, length, MAX_SLOTS);
+        return ui.showFreeSlots(slots);
+    }
+}
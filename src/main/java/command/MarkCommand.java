@@ -39,7 +39,7 @@ public class MarkCommand extends Command {
 
         Task task = tasks.get(index);
         task.markAsDone();
-        storage.update(tasks);
+        storage.saveMarked(tasks, index);
         return ui.showDone(task);
     }
 
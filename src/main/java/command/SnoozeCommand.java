@@ -7,12 +7,10 @@ import task.TaskList;
 import ui.Ui;
 
 import java.time.Duration;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Command to postpone a task's deadline or event times by a specified duration.
- * Supports flexible duration formats like "3d", "5h", "30m" for days, hours, and minutes.
+ * Supports flexible duration formats like "2w", "3d", "5h", "30m" and combinations such as "1d4h30m".
  * Cannot be applied to completed tasks or todo tasks without dates.
  */
 public class SnoozeCommand extends Command {
@@ -23,7 +21,7 @@ public class SnoozeCommand extends Command {
      * Creates a new snooze command.
      *
      * @param index the zero-based index of the task to snooze
-     * @param durationString the duration in format "3d", "5h", or "30m"
+     * @param durationString the duration in a format such as "3d", "5h", "30m" or "1d4h30m"
      */
     public SnoozeCommand(int index, String durationString) {
         this.index = index;
@@ -40,55 +38,22 @@ public class SnoozeCommand extends Command {
      * @throws BugException if task is completed, index is invalid, or duration format is wrong
      */
     @Override
-    public String execute(TaskList tasks, Ui ui, Storage storage) throws BugException{
-        try {
-            Task task = tasks.get(index);
-
-            if (task.getStatusIcon().equals("X")) {
-                throw new BugException("Cannot snooze a completed task! unmark it first if needed!");
-            }
-
-            Duration duration = parseDuration(durationString);
-            if (duration == null) {
-                throw new BugException("Duration cannot be empty!");
-            }
-            task.snooze(duration);
-            storage.update(tasks);
-            return ui.showSnooze(task);
-        } catch (BugException e) {
-            return ui.showError(e.getMessage());
-        } catch (Exception e) {
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws BugException {
+        if (index < 0 || index >= tasks.size()) {
             throw new BugException("No tasks at this index!");
         }
-    }
+        Task task = tasks.get(index);
 
-    /**
-     * Parses duration strings into Duration objects.
-     * Supports "3d" (days), "5h" (hours), "30m" (minutes) formats.
-     *
-     * @param durationString the duration string to parse
-     * @return Duration object or null if format is invalid
-     */
-    private static Duration parseDuration(String durationString) {
-        Pattern pattern = Pattern.compile("(\\d+)([dhm])"); // match number + unit (d for days, h for hours, m for minutes)
-        Matcher matcher = pattern.matcher(durationString);
-
-        if (matcher.matches()) {
-            int amount = Integer.parseInt(matcher.group(1));
-            String unit = matcher.group(2);
-
-            switch (unit) {
-                case "d":
-                    return Duration.ofDays(amount);
-                case "h":
-                    return Duration.ofHours(amount);
-                case "m":
-                    return Duration.ofMinutes(amount);
-                default:
-                    return null;
-            }
+        if (task.getStatusIcon().equals("X")) {
+            throw new BugException("Cannot snooze a completed task! unmark it first if needed!");
         }
 
-        return null;
+        Duration duration = DurationParser.parse(durationString);
+        if (duration == null) {
+            throw new BugException("Invalid duration. use numbers followed by w, d, h or m (eg 2h or 1d4h30m)!");
+        }
+        tasks.snooze(index, duration);
+        storage.saveSnoozed(tasks, index, duration);
+        return ui.showSnooze(task);
     }
 }
@@ -0,0 +1,26 @@
+package command;
+
+import metrics.LatencyRecorder;
+import storage.Storage;
+import task.TaskList;
+import ui.Ui;
+
+/**
+ * Command to display how long commands have taken since the application started.
+ * Shows the count, median, 99th percentile and maximum latency of each phase and each kind of command.
+ */
+public class StatsCommand extends Command {
+
+    /**
+     * Executes the stats command by displaying the recorded latencies.
+     *
+     * @param tasks the task list (unused)
+     * @param ui the user interface for formatting the statistics
+     * @param storage the storage system (unused)
+     * @return formatted table of latencies
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) {
+        return ui.showStats(LatencyRecorder.getDefault().report());
+    }
+}
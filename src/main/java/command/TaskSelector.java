@@ -0,0 +1,98 @@
+package command;
+
+import exception.BugException;
+import task.Task;
+import task.TaskList;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Picks out the tasks a bulk command applies to.
+ * A selector is either a list of index ranges, the completed tasks, or the tasks matching a keyword,
+ * and is resolved against the task list only when the command runs.
+ */
+public class TaskSelector {
+    private final List<int[]> ranges;
+    private final boolean isDone;
+    private final String keyword;
+
+    /**
+     * Creates a selector. Use the static factory methods instead.
+     *
+     * @param ranges zero-based inclusive ranges, or null
+     * @param isDone whether to select the completed tasks
+     * @param keyword the keyword to search for, or null
+     */
+    private TaskSelector(List<int[]> ranges, boolean isDone, String keyword) {
+        this.ranges = ranges;
+        this.isDone = isDone;
+        this.keyword = keyword;
+    }
+
+    /**
+     * Creates a selector for ranges of list positions, such as "1-500" or "3,7,9".
+     *
+     * @param ranges zero-based inclusive ranges, each holding a first and a last index
+     * @return the selector
+     */
+    public static TaskSelector ofRanges(List<int[]> ranges) {
+        assert !ranges.isEmpty() : "selector needs at least one range!";
+        return new TaskSelector(ranges, false, null);
+    }
+
+    /**
+     * Creates a selector for every completed task.
+     *
+     * @return the selector
+     */
+    public static TaskSelector ofDone() {
+        return new TaskSelector(null, true, null);
+    }
+
+    /**
+     * Creates a selector for the tasks whose descriptions contain a keyword, as the find command matches them.
+     *
+     * @param keyword the keyword to search for
+     * @return the selector
+     */
+    public static TaskSelector ofKeyword(String keyword) {
+        assert !keyword.isEmpty() : "keyword cannot be empty!";
+        return new TaskSelector(null, false, keyword);
+    }
+
+    /**
+     * Resolves the selector against the task list.
+     *
+     * @param tasks the task list
+     * @return the distinct zero-based indices of the selected tasks, in ascending order
+     * @throws BugException if a range reaches past the end of the list
+     */
+    public int[] select(TaskList tasks) throws BugException {
+        BitSet selected = new BitSet(tasks.size());
+        if (ranges != null) {
+            for (int[] range : ranges) {
+                if (range[1] >= tasks.size()) {
+                    throw new BugException("Task index " + (range[1] + 1) + " is out of range! You have "
+                            + tasks.size() + " tasks.");
+                }
+                selected.set(range[0], range[1] + 1);
+            }
+        } else if (isDone) {
+            int i = 0;
+            for (Task task : tasks) {
+                if (task.isDone()) {
+                    selected.set(i);
+                }
+                i++;
+            }
+        } else {
+            ArrayList<Task> matches = tasks.findTasks(keyword);
+            for (Task task : matches) {
+                selected.set(tasks.indexOfId(task.getId()));
+            }
+        }
+        return selected.stream().toArray();
+    }
+}
@@ -40,7 +40,7 @@ public class TodoCommand extends Command {
         }
         Task todo = new ToDos(description);
         tasks.add(todo);
-        storage.update(tasks);
+        storage.saveAdded(tasks, todo);
         return ui.showToDo(todo, tasks);
     }
 }
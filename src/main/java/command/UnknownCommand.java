@@ -40,4 +40,14 @@ public class UnknownCommand extends Command {
     public String execute(TaskList tasks, Ui ui, Storage storage) {
         return ui.showError(errorMessage);
     }
+
+    /**
+     * Indicates that this command stands in for invalid input.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isError() {
+        return true;
+    }
 }
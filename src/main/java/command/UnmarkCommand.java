@@ -39,7 +39,7 @@ public class UnmarkCommand extends Command {
 
         Task task = tasks.get(index);
         task.markAsUndone();
-        storage.update(tasks);
+        storage.saveUnmarked(tasks, index);
         return ui.showUndone(task);
     }
 
@@ -0,0 +1,25 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event timing the execution of one command, including any saving it does.
+ * Disabled unless turned on in the recording settings, e.g. with "+bug.Execute#enabled=true".
+ */
+@Name("bug.Execute")
+@Label("Execute")
+@Category("Bug")
+@Description("Execution of one command, including any saving it does")
+@Enabled(false)
+@StackTrace(false)
+public class ExecuteEvent extends Event {
+    /** The simple class name of the command. */
+    @Label("Command")
+    public String command;
+}
@@ -0,0 +1,110 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds with logarithmic buckets.
+ * Every power of two is split into eight buckets, so any reported value is within 12.5% of the true one,
+ * while the whole range of a long fits in under 500 counters. Recording is one atomic increment, plus a
+ * compare-and-set only when a new maximum is seen.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds; negative values count as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketOf(value));
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the largest recorded latency.
+     *
+     * @return the maximum in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimates a percentile from the buckets.
+     *
+     * @param percentile the percentile between 0 and 100, e.g. 99
+     * @return the upper end of the bucket holding the percentile, capped at the maximum, in nanoseconds,
+     *         or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        assert percentile >= 0 && percentile <= 100 : "percentile must be between 0 and 100!";
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Finds the bucket of a latency.
+     *
+     * @param value the latency, not negative
+     * @return the bucket index
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest latency that falls into a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the inclusive upper bound in nanoseconds
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,184 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects latency histograms for the phases of handling a command and for each kind of command.
+ * Recording never blocks, so it is cheap enough to leave on for every command.
+ * One recorder is shared by the whole application, see {@link #getDefault()}.
+ */
+public class LatencyRecorder {
+    /** System property naming the file that statistics are periodically written to. */
+    public static final String DUMP_FILE_PROPERTY = "bug.stats.file";
+    /** System property giving the number of seconds between periodic dumps. */
+    public static final String DUMP_INTERVAL_PROPERTY = "bug.stats.interval";
+
+    private static final long DEFAULT_DUMP_INTERVAL_SECONDS = 60;
+    private static final LatencyRecorder DEFAULT = new LatencyRecorder();
+
+    /**
+     * The stages every command goes through.
+     */
+    public enum Phase {
+        PARSE, EXECUTE, PERSIST, RENDER
+    }
+
+    private final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+    private final Map<String, LatencyHistogram> commands = new ConcurrentHashMap<>();
+    private ScheduledExecutorService dumper;
+
+    /**
+     * Creates a recorder with empty histograms.
+     */
+    public LatencyRecorder() {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Returns the recorder shared by the whole application.
+     *
+     * @return the default recorder
+     */
+    public static LatencyRecorder getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Records how long a phase took.
+     *
+     * @param phase the phase
+     * @param nanos the elapsed time in nanoseconds
+     */
+    public void record(Phase phase, long nanos) {
+        phases.get(phase).record(nanos);
+    }
+
+    /**
+     * Records how long a command took to execute, not counting parsing it or showing its response.
+     *
+     * @param name the name of the command, e.g. its class name
+     * @param nanos the elapsed time in nanoseconds
+     */
+    public void recordCommand(String name, long nanos) {
+        commands.computeIfAbsent(name, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Returns the histogram of a phase.
+     *
+     * @param phase the phase
+     * @return the histogram
+     */
+    public LatencyHistogram getPhase(Phase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * Formats the count, p50, p99 and maximum of every phase and command as a table.
+     * The commands are indented under the execute phase, since that is the time they record.
+     *
+     * @return the report, one histogram per line
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-18s %8s %10s %10s %10s", "", "count", "p50", "p99", "max"));
+        for (Phase phase : Phase.values()) {
+            appendRow(report, phase.name().toLowerCase(), phases.get(phase));
+            if (phase != Phase.EXECUTE) {
+                continue;
+            }
+            for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(commands).entrySet()) {
+                appendRow(report, "  " + entry.getKey(), entry.getValue());
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Starts writing the report to a file at a fixed rate on a background thread.
+     * Does nothing if dumping has already started.
+     *
+     * @param file the file to overwrite with each report
+     * @param intervalSeconds the number of seconds between reports
+     */
+    public synchronized void startPeriodicDump(Path file, long intervalSeconds) {
+        assert intervalSeconds > 0 : "Dump interval must be positive!";
+        if (dumper != null) {
+            return;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bug-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> dump(file), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts the periodic dump if the {@value #DUMP_FILE_PROPERTY} system property names a file.
+     * The interval comes from {@value #DUMP_INTERVAL_PROPERTY} and defaults to a minute.
+     */
+    public void startPeriodicDumpFromProperties() {
+        String file = System.getProperty(DUMP_FILE_PROPERTY);
+        if (file == null || file.isBlank()) {
+            return;
+        }
+        long interval = DEFAULT_DUMP_INTERVAL_SECONDS;
+        try {
+            interval = Math.max(1, Long.parseLong(System.getProperty(DUMP_INTERVAL_PROPERTY, "")));
+        } catch (NumberFormatException e) {
+            // keep the default interval
+        }
+        startPeriodicDump(Path.of(file), interval);
+    }
+
+    /**
+     * Overwrites a file with the current report.
+     *
+     * @param file the file to write
+     */
+    private void dump(Path file) {
+        try {
+            Files.writeString(file, report() + System.lineSeparator());
+        } catch (IOException e) {
+            System.err.println("Could not write statistics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Appends one line of the report.
+     *
+     * @param report the report being built
+     * @param name the name of the row
+     * @param histogram the histogram to summarise
+     */
+    private static void appendRow(StringBuilder report, String name, LatencyHistogram histogram) {
+        report.append(String.format("%n%-18s %8d %10s %10s %10s", name, histogram.getCount(),
+                formatNanos(histogram.getPercentile(50)), formatNanos(histogram.getPercentile(99)),
+                formatNanos(histogram.getMax())));
+    }
+
+    /**
+     * Formats a latency in the most readable unit.
+     *
+     * @param nanos the latency in nanoseconds
+     * @return the latency in microseconds or milliseconds, e.g. "42us" or "1.3ms"
+     */
+    static String formatNanos(long nanos) {
+        if (nanos < 1_000_000) {
+            return (nanos / 1_000) + "us";
+        }
+        return String.format("%.1fms", nanos / 1_000_000.0);
+    }
+}
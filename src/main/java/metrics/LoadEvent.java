@@ -0,0 +1,25 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event timing the loading of the task list from the snapshot and journals.
+ * Disabled unless turned on in the recording settings, e.g. with "+bug.Load#enabled=true".
+ */
+@Name("bug.Load")
+@Label("Load")
+@Category("Bug")
+@Description("Loading of the task list from the snapshot and journals")
+@Enabled(false)
+@StackTrace(false)
+public class LoadEvent extends Event {
+    /** The number of tasks loaded. */
+    @Label("Task Count")
+    public int taskCount;
+}
@@ -0,0 +1,25 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event timing the parsing of one line of user input into a command.
+ * Disabled unless turned on in the recording settings, e.g. with "+bug.Parse#enabled=true".
+ */
+@Name("bug.Parse")
+@Label("Parse")
+@Category("Bug")
+@Description("Parsing of one line of user input into a command")
+@Enabled(false)
+@StackTrace(false)
+public class ParseEvent extends Event {
+    /** The number of characters in the input. */
+    @Label("Input Length")
+    public int length;
+}
@@ -0,0 +1,29 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event timing the saving of a single change, usually one journal record.
+ * Disabled unless turned on in the recording settings, e.g. with "+bug.Persist#enabled=true".
+ */
+@Name("bug.Persist")
+@Label("Persist")
+@Category("Bug")
+@Description("Saving of a single change to the journal, or to a full snapshot when journaling is off")
+@Enabled(false)
+@StackTrace(false)
+public class PersistEvent extends Event {
+    /** The kind of change, e.g. "add" or "mark". */
+    @Label("Operation")
+    public String operation;
+
+    /** The number of tasks after the change. */
+    @Label("Task Count")
+    public int taskCount;
+}
@@ -0,0 +1,30 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event timing the showing of one chat message in a list cell, whether the cell creates a
+ * dialog box for it or reuses the one it already has.
+ * Disabled unless turned on in the recording settings, e.g. with "+bug.Render#enabled=true".
+ */
+@Name("bug.Render")
+@Label("Render")
+@Category("Bug")
+@Description("Showing one chat message in a list cell, creating or reusing its dialog box")
+@Enabled(false)
+@StackTrace(false)
+public class RenderEvent extends Event {
+    /** The number of characters in the message. */
+    @Label("Text Length")
+    public int length;
+
+    /** Whether the cell reused a dialog box it had already created. */
+    @Label("Reused")
+    public boolean isReused;
+}
@@ -0,0 +1,31 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event timing the rewrite of the whole snapshot.
+ * Disabled unless turned on in the recording settings, e.g. with "+bug.Update#enabled=true".
+ */
+@Name("bug.Update")
+@Label("Update")
+@Category("Bug")
+@Description("Rewrite of the whole snapshot with the current task list")
+@Enabled(false)
+@StackTrace(false)
+public class UpdateEvent extends Event {
+    /** The number of tasks saved. */
+    @Label("Task Count")
+    public int taskCount;
+
+    /** The size of the new snapshot. */
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesWritten;
+}
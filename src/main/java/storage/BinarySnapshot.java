@@ -0,0 +1,248 @@
+package storage;
+
+import task.Deadlines;
+import task.Events;
+import task.Task;
+import task.ToDos;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes the binary snapshot format.
+ * The file starts with the magic bytes "BUGB", a format version, the snapshot generation and the task count.
+ * Each task is then stored as a type tag, a done flag, a length-prefixed UTF-8 description, its dates as
+ * epoch days (deadlines) or UTC epoch seconds (events), and a CRC32C over the record.
+ */
+final class BinarySnapshot {
+    private static final int MAGIC = 0x42554742;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+
+    private BinarySnapshot() {
+    }
+
+    /**
+     * Loads a binary snapshot by mapping the file into memory.
+     * Loading stops at the first record that is truncated or fails its checksum, keeping the tasks before it.
+     *
+     * @param path the binary snapshot file
+     * @return the loaded snapshot, empty if the file doesn't exist
+     * @throws IOException if the file cannot be read
+     */
+    static Snapshot read(Path path) throws IOException {
+        Snapshot snapshot = new Snapshot();
+        if (Files.notExists(path) || Files.size(path) == 0) {
+            return snapshot;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                System.err.println("Warning: " + path.getFileName() + " is not a Bug snapshot, ignoring it");
+                snapshot.markDamaged();
+                return snapshot;
+            }
+            snapshot.setGeneration(buffer.getLong());
+            int count = buffer.getInt();
+
+            CRC32C crc = new CRC32C();
+            for (int i = 0; i < count; i++) {
+                Task task = readTask(buffer, crc);
+                if (task == null) {
+                    System.err.println("Warning: Snapshot is damaged from record " + (i + 1)
+                            + ", keeping the " + i + " tasks before it");
+                    snapshot.markDamaged();
+                    break;
+                }
+                snapshot.getTasks().add(task);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Reads only the generation from the header of a binary snapshot.
+     *
+     * @param path the binary snapshot file
+     * @return the generation, -1 if the file doesn't exist, or {@link Long#MAX_VALUE} if the header is
+     *         unreadable, so that a damaged snapshot is never treated as older than another one
+     * @throws IOException if the file cannot be read
+     */
+    static long readGeneration(Path path) throws IOException {
+        if (Files.notExists(path)) {
+            return -1;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return header.limit() == 0 ? 0 : Long.MAX_VALUE;
+            }
+            return header.getLong();
+        }
+    }
+
+    /**
+     * Writes a complete binary snapshot to an open channel.
+     *
+     * @param channel the destination, positioned at the start of an empty file
+     * @param generation the generation to record in the header
+     * @param count the number of tasks to write
+     * @param taskAt returns the task at a given zero-based index
+     * @throws IOException if writing fails
+     */
+    static void write(FileChannel channel, long generation, int count, IntFunction<Task> taskAt)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(generation).putInt(count);
+
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < count; i++) {
+            Task task = taskAt.apply(i);
+            byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+            int size = 1 + 1 + 4 + description.length + 8 + 8 + 4;
+            if (buffer.remaining() < size) {
+                drain(channel, buffer);
+                if (buffer.capacity() < size) {
+                    buffer = ByteBuffer.allocateDirect(size);
+                }
+            }
+            writeTask(buffer, task, description, crc);
+        }
+        drain(channel, buffer);
+    }
+
+    /**
+     * Encodes a single task followed by its checksum.
+     *
+     * @param buffer the destination with enough room for the record
+     * @param task the task to encode
+     * @param description the task description as UTF-8
+     * @param crc the checksum calculator to reuse
+     */
+    private static void writeTask(ByteBuffer buffer, Task task, byte[] description, CRC32C crc) {
+        int recordStart = buffer.position();
+        if (task instanceof Deadlines) {
+            buffer.put(DEADLINE);
+        } else if (task instanceof Events) {
+            buffer.put(EVENT);
+        } else {
+            buffer.put(TODO);
+        }
+        buffer.put((byte) (task.isDone() ? 1 : 0));
+        buffer.putInt(description.length).put(description);
+
+        if (task instanceof Deadlines) {
+            buffer.putLong(((Deadlines) task).getDueDate().toEpochDay());
+        } else if (task instanceof Events) {
+            Events event = (Events) task;
+            buffer.putLong(event.getStart().toEpochSecond(ZoneOffset.UTC));
+            buffer.putLong(event.getEnd().toEpochSecond(ZoneOffset.UTC));
+        }
+
+        buffer.putInt(checksum(buffer, recordStart, buffer.position(), crc));
+    }
+
+    /**
+     * Decodes a single task and verifies its checksum.
+     *
+     * @param buffer the source, positioned at the start of a record
+     * @param crc the checksum calculator to reuse
+     * @return the decoded task, or null if the record is truncated, unknown or corrupted
+     */
+    private static Task readTask(ByteBuffer buffer, CRC32C crc) {
+        try {
+            int recordStart = buffer.position();
+            byte type = buffer.get();
+            boolean isDone = buffer.get() != 0;
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            String description = new String(bytes, StandardCharsets.UTF_8);
+
+            Task task;
+            switch (type) {
+                case TODO:
+                    task = new ToDos(description);
+                    break;
+                case DEADLINE:
+                    task = new Deadlines(description, LocalDate.ofEpochDay(buffer.getLong()));
+                    break;
+                case EVENT:
+                    LocalDateTime start = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+                    LocalDateTime end = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+                    task = new Events(description, start, end);
+                    break;
+                default:
+                    return null;
+            }
+
+            int expected = checksum(buffer, recordStart, buffer.position(), crc);
+            if (buffer.getInt() != expected) {
+                return null;
+            }
+            if (isDone) {
+                task.markAsDone();
+            }
+            return task;
+        } catch (BufferUnderflowException | DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Computes the CRC32C of a region of a buffer without moving its position.
+     *
+     * @param buffer the buffer holding the record
+     * @param from the first byte of the record
+     * @param to one past the last byte of the record
+     * @param crc the checksum calculator to reuse
+     * @return the checksum
+     */
+    private static int checksum(ByteBuffer buffer, int from, int to, CRC32C crc) {
+        ByteBuffer region = buffer.duplicate();
+        region.limit(to).position(from);
+        crc.reset();
+        crc.update(region);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Writes everything in the buffer to the channel and clears it for reuse.
+     *
+     * @param channel the destination
+     * @param buffer the buffer in write mode
+     * @throws IOException if writing fails
+     */
+    static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
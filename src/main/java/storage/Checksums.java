@@ -0,0 +1,135 @@
+package storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Seals storage records with a CRC32C checksum so that torn or corrupted writes can be detected on load.
+ * A sealed record is the record text followed by " #" and eight lowercase hex digits.
+ */
+final class Checksums {
+    /** Header token marking a file whose records are all sealed. */
+    static final String MARKER = "crc32c";
+
+    private static final int HEX_DIGITS = 8;
+    /** Number of characters a checksum adds to a record. */
+    static final int SUFFIX_LENGTH = HEX_DIGITS + 2;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private Checksums() {
+    }
+
+    /**
+     * Appends the checksum of a record to it.
+     *
+     * @param record the record text
+     * @return the record followed by its checksum
+     */
+    static String seal(String record) {
+        int crc = checksum(record);
+        char[] suffix = new char[SUFFIX_LENGTH];
+        suffix[0] = ' ';
+        suffix[1] = '#';
+        for (int i = HEX_DIGITS - 1; i >= 0; i--) {
+            suffix[2 + i] = HEX[crc & 0xf];
+            crc >>>= 4;
+        }
+        return record + new String(suffix);
+    }
+
+    /**
+     * Appends the checksum of a record that was just encoded into a buffer.
+     *
+     * @param buffer the buffer in write mode, positioned right after the record, with room for the checksum
+     * @param from the first byte of the record
+     * @param crc the checksum calculator to reuse
+     */
+    static void seal(ByteBuffer buffer, int from, CRC32C crc) {
+        ByteBuffer record = buffer.duplicate();
+        record.limit(buffer.position()).position(from);
+        crc.reset();
+        crc.update(record);
+
+        int value = (int) crc.getValue();
+        buffer.put((byte) ' ').put((byte) '#');
+        for (int shift = (HEX_DIGITS - 1) * 4; shift >= 0; shift -= 4) {
+            buffer.put((byte) HEX[(value >>> shift) & 0xf]);
+        }
+    }
+
+    /**
+     * Verifies a sealed record and strips its checksum.
+     *
+     * @param line the sealed record
+     * @return the record text, or null if the checksum is missing or does not match
+     */
+    static String unseal(String line) {
+        int split = line.length() - SUFFIX_LENGTH;
+        if (split < 0 || line.charAt(split) != ' ' || line.charAt(split + 1) != '#') {
+            return null;
+        }
+
+        int expected = 0;
+        for (int i = split + 2; i < line.length(); i++) {
+            int digit = Character.digit(line.charAt(i), 16);
+            if (digit < 0) {
+                return null;
+            }
+            expected = (expected << 4) | digit;
+        }
+
+        String record = line.substring(0, split);
+        return checksum(record) == expected ? record : null;
+    }
+
+    /**
+     * Verifies a sealed record held in a range of UTF-8 bytes without decoding it.
+     *
+     * @param bytes the buffer holding the sealed record
+     * @param from the first byte of the sealed record
+     * @param to one past the last byte of the sealed record
+     * @return one past the last byte of the record text, or -1 if the checksum is missing or does not match
+     */
+    static int unseal(byte[] bytes, int from, int to) {
+        int split = to - SUFFIX_LENGTH;
+        if (split < from || bytes[split] != ' ' || bytes[split + 1] != '#') {
+            return -1;
+        }
+
+        int expected = 0;
+        for (int i = split + 2; i < to; i++) {
+            int digit = Character.digit(bytes[i], 16);
+            if (digit < 0) {
+                return -1;
+            }
+            expected = (expected << 4) | digit;
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, from, split - from);
+        return (int) crc.getValue() == expected ? split : -1;
+    }
+
+    /**
+     * Checks whether a header line declares its records as sealed.
+     *
+     * @param header the header line
+     * @return true if the header ends with the checksum marker
+     */
+    static boolean isMarked(String header) {
+        return header.trim().endsWith(" " + MARKER);
+    }
+
+    /**
+     * Computes the CRC32C of a record's UTF-8 encoding.
+     *
+     * @param record the record text
+     * @return the checksum
+     */
+    private static int checksum(String record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,13 @@
+package storage;
+
+/**
+ * How far a journal write is pushed towards the disk before it counts as saved.
+ */
+public enum Durability {
+    /** Records stay in the writer's buffer until it fills up or the journal is closed. */
+    NONE,
+    /** Records are handed to the operating system after every write. */
+    FLUSH,
+    /** Records are forced onto the storage device after every write. */
+    FSYNC
+}
@@ -0,0 +1,308 @@
+package storage;
+
+import exception.BugException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of task mutations that sits on top of a snapshot file.
+ * The first line is a header naming the snapshot generation the records apply to,
+ * every following line is one mutation record sealed with its checksum.
+ */
+class Journal {
+    static final String HEADER_PREFIX = "# base ";
+
+    private final Path path;
+    private FileChannel channel;
+    private BufferedWriter writer;
+    private Durability durability = Durability.FLUSH;
+    private long base = -1;
+    private boolean isChecksummed = true;
+    private boolean isTruncated = false;
+    private int recordCount = 0;
+    private long byteCount = 0;
+
+    /**
+     * Creates a journal backed by the given file.
+     *
+     * @param path the journal file location
+     */
+    Journal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the location of the journal file.
+     *
+     * @return the journal path
+     */
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Sets how far each committed write is pushed towards the disk.
+     *
+     * @param durability the durability level for later commits
+     */
+    void setDurability(Durability durability) {
+        this.durability = durability;
+    }
+
+    /**
+     * Returns the snapshot generation this journal currently applies to.
+     *
+     * @return the base generation, or -1 if it is not known yet
+     */
+    long getBase() {
+        return base;
+    }
+
+    /**
+     * Returns whether the last read stopped early at a record with a bad checksum.
+     *
+     * @return true if records after a torn or corrupted one were dropped
+     */
+    boolean isTruncated() {
+        return isTruncated;
+    }
+
+    /**
+     * Returns the number of records in the journal as last read or written by this instance.
+     *
+     * @return the record count
+     */
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the approximate size of the journal file as last read or written by this instance.
+     *
+     * @return the size in bytes
+     */
+    long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Reads the snapshot generation recorded in the journal header.
+     *
+     * @return the base generation, or -1 if the journal is missing or has no header
+     * @throws BugException if the journal cannot be read
+     */
+    long readBase() throws BugException {
+        try {
+            if (Files.notExists(path)) {
+                base = -1;
+                return base;
+            }
+            try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                readHeader(reader.readLine());
+                return base;
+            }
+        } catch (IOException e) {
+            throw new BugException("Failed to read journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every mutation record in the journal, skipping the header.
+     * Stops at the first record whose checksum does not match, since it was torn by a crash mid-write.
+     *
+     * @return the intact records in the order they were appended
+     * @throws BugException if the journal cannot be read
+     */
+    List<String> readRecords() throws BugException {
+        List<String> records = new ArrayList<>();
+        isTruncated = false;
+        try {
+            if (Files.notExists(path)) {
+                return records;
+            }
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            if (!lines.isEmpty()) {
+                readHeader(lines.get(0));
+            }
+            for (int i = 1; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (line.isBlank()) {
+                    continue;
+                }
+                String record = isChecksummed ? Checksums.unseal(line) : line;
+                if (record == null) {
+                    isTruncated = true;
+                    break;
+                }
+                records.add(record);
+            }
+            recordCount = records.size();
+            byteCount = Files.size(path);
+        } catch (IOException e) {
+            throw new BugException("Failed to read journal: " + e.getMessage());
+        }
+        return records;
+    }
+
+    /**
+     * Appends a single mutation record and commits it to the file.
+     *
+     * @param record the record to append, without a trailing line separator
+     * @throws BugException if the record cannot be written
+     */
+    void append(String record) throws BugException {
+        write(record);
+        commit();
+    }
+
+    /**
+     * Buffers a single mutation record without committing it.
+     *
+     * @param record the record to append, without a trailing line separator
+     * @throws BugException if the record cannot be written
+     */
+    void write(String record) throws BugException {
+        assert !record.contains("\n") : "journal records must fit on one line!";
+        try {
+            if (writer == null) {
+                open();
+            }
+            String line = isChecksummed ? Checksums.seal(record) : record;
+            writer.write(line);
+            writer.write(System.lineSeparator());
+            recordCount++;
+            byteCount += line.length() + System.lineSeparator().length();
+        } catch (IOException e) {
+            throw new BugException("Failed to append to journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pushes buffered records towards the disk according to the durability level.
+     *
+     * @throws BugException if the records cannot be written
+     */
+    void commit() throws BugException {
+        if (writer == null || durability == Durability.NONE) {
+            return;
+        }
+        try {
+            writer.flush();
+            if (durability == Durability.FSYNC) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new BugException("Failed to append to journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Discards all records and starts a fresh journal on top of the given snapshot generation.
+     *
+     * @param newBase the generation of the snapshot the following records apply to
+     * @throws BugException if the journal cannot be rewritten
+     */
+    void reset(long newBase) throws BugException {
+        close();
+        try {
+            String header = HEADER_PREFIX + newBase + " " + Checksums.MARKER + System.lineSeparator();
+            Files.writeString(path, header, StandardCharsets.UTF_8);
+            base = newBase;
+            isChecksummed = true;
+            recordCount = 0;
+            byteCount = header.length();
+        } catch (IOException e) {
+            throw new BugException("Failed to reset journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the journal and atomically renames it, so that appends can continue in a fresh file.
+     *
+     * @param target the new location of the journal file
+     * @throws BugException if the file cannot be moved
+     */
+    void moveTo(Path target) throws BugException {
+        close();
+        try {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+            base = -1;
+        } catch (IOException e) {
+            throw new BugException("Failed to seal journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the journal file if it exists.
+     *
+     * @throws BugException if the file cannot be deleted
+     */
+    void delete() throws BugException {
+        close();
+        try {
+            Files.deleteIfExists(path);
+            base = -1;
+        } catch (IOException e) {
+            throw new BugException("Failed to delete journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the underlying writer if it is open.
+     */
+    void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Warning: failed to close journal: " + e.getMessage());
+        }
+        writer = null;
+        channel = null;
+    }
+
+    /**
+     * Opens the journal for appending. The journal must already start with a header.
+     *
+     * @throws IOException if the file cannot be opened
+     * @throws BugException if the existing header cannot be read
+     */
+    private void open() throws IOException, BugException {
+        if (base < 0 && readBase() < 0) {
+            throw new BugException("Journal has no base generation, reset it first!");
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a journal header line into the base generation and whether records carry checksums.
+     * Journals written before checksums were introduced have a header without the checksum marker.
+     *
+     * @param header the first line of the journal
+     */
+    private void readHeader(String header) {
+        base = -1;
+        if (header == null || !header.startsWith(HEADER_PREFIX)) {
+            return;
+        }
+        isChecksummed = Checksums.isMarked(header);
+        try {
+            base = Long.parseLong(header.substring(HEADER_PREFIX.length()).trim().split(" ", 2)[0]);
+        } catch (NumberFormatException e) {
+            base = -1;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package storage;
+
+import exception.BugException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background thread that group-commits journal records.
+ * Callers only enqueue records; the writer waits for the flush interval so that a burst of
+ * mutations accumulates, then writes the whole batch and commits it once.
+ * If a batch fails, the writer keeps it and stops writing until the journal is reset by a full snapshot,
+ * since the journal may end in a partly written record that later ones must not be appended after.
+ */
+class JournalWriter {
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final Journal journal;
+    private final Object journalLock;
+    private final BatchListener afterBatch;
+    private final long flushIntervalMillis;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final List<Pending> failedBatch = new ArrayList<>();
+    private final Thread thread;
+    private volatile boolean isRunning = true;
+    private volatile BugException failure;
+    private long epoch = 0;
+
+    /**
+     * Creates and starts a writer for the given journal.
+     *
+     * @param journal the journal to append batches to
+     * @param journalLock the lock guarding the journal, held while a batch is written
+     * @param afterBatch run while still holding the lock after every batch
+     * @param flushIntervalMillis how long to let records accumulate before writing them
+     */
+    JournalWriter(Journal journal, Object journalLock, BatchListener afterBatch, long flushIntervalMillis) {
+        assert flushIntervalMillis >= 0 : "flush interval cannot be negative!";
+        this.journal = journal;
+        this.journalLock = journalLock;
+        this.afterBatch = afterBatch;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.thread = new Thread(this::run, "bug-journal-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues a record for the next batch.
+     *
+     * @param record the journal record
+     */
+    synchronized void submit(String record) {
+        queue.add(new Pending(epoch, record));
+    }
+
+    /**
+     * Returns the error of a batch that could not be written and is still being held.
+     *
+     * @return the error, naming the records that are not saved yet, or null if every batch was written
+     */
+    BugException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Drops every queued record, including a batch that failed to write, and resumes writing.
+     * Must be called while holding the journal lock, right before the journal is reset by a snapshot that
+     * already contains those records.
+     */
+    synchronized void discardPending() {
+        epoch++;
+        queue.clear();
+        failedBatch.clear();
+        failure = null;
+    }
+
+    /**
+     * Writes out every queued record and stops the writer thread.
+     * Reports the records that could not be saved if a failed batch is still being held.
+     */
+    void close() {
+        isRunning = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (failure != null) {
+                System.err.println("Error: " + failure.getMessage());
+                for (Pending pending : failedBatch) {
+                    System.err.println("Unsaved change: " + pending.record);
+                }
+                for (Pending pending : queue) {
+                    System.err.println("Unsaved change: " + pending.record);
+                }
+            }
+        }
+    }
+
+    /**
+     * Main loop of the writer thread.
+     * Stops writing while a failed batch is held, until it is discarded or the writer is closed.
+     */
+    private void run() {
+        while (isRunning || !queue.isEmpty() && failure == null) {
+            try {
+                if (failure != null) {
+                    Thread.sleep(IDLE_POLL_MILLIS);
+                    continue;
+                }
+                Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                if (flushIntervalMillis > 0 && isRunning) {
+                    Thread.sleep(flushIntervalMillis);
+                }
+                writeBatch(first);
+            } catch (InterruptedException e) {
+                isRunning = false;
+            }
+        }
+    }
+
+    /**
+     * Writes a record together with everything queued behind it and commits them in one go.
+     * Records queued before the journal was last reset are skipped. If the batch fails, it is held
+     * together with the error instead of being dropped.
+     *
+     * @param first the record that started the batch
+     */
+    private void writeBatch(Pending first) {
+        List<Pending> batch = new ArrayList<>();
+        batch.add(first);
+
+        synchronized (journalLock) {
+            long currentEpoch;
+            synchronized (this) {
+                queue.drainTo(batch);
+                currentEpoch = epoch;
+            }
+            batch.removeIf(pending -> pending.epoch != currentEpoch);
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                for (Pending pending : batch) {
+                    journal.write(pending.record);
+                }
+                journal.commit();
+            } catch (BugException e) {
+                synchronized (this) {
+                    failedBatch.addAll(batch);
+                    failure = new BugException(e.getMessage() + " (" + batch.size()
+                            + " change(s) not saved yet, starting with '" + batch.get(0).record + "')");
+                }
+                return;
+            }
+
+            try {
+                afterBatch.onBatchWritten();
+            } catch (BugException e) {
+                System.err.println("Warning: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Callback run after each batch while the journal lock is still held.
+     */
+    interface BatchListener {
+        /**
+         * Reacts to a batch having been written to the journal.
+         *
+         * @throws BugException if the follow-up work fails
+         */
+        void onBatchWritten() throws BugException;
+    }
+
+    /**
+     * A journal record together with the journal epoch it was submitted in.
+     */
+    private static class Pending {
+        private final long epoch;
+        private final String record;
+
+        private Pending(long epoch, String record) {
+            this.epoch = epoch;
+            this.record = record;
+        }
+    }
+}
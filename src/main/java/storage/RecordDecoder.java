@@ -0,0 +1,270 @@
+package storage;
+
+import exception.BugException;
+import task.Deadlines;
+import task.Events;
+import task.Task;
+import task.ToDos;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Decodes pipe-separated task records straight from their UTF-8 bytes.
+ * Fields are found by scanning for separators once, so the only string allocated for a record is its
+ * description. ISO dates in the exact form the tasks write them are parsed digit by digit; anything else
+ * falls back to the {@code java.time} parsers, which also produce the error messages.
+ */
+final class RecordDecoder {
+    private static final int MAX_FIELDS = 6;
+    private static final int DATE_LENGTH = "2025-01-01".length();
+    private static final int MINUTE_DATE_TIME_LENGTH = "2025-01-01T00:00".length();
+    private static final int SECOND_DATE_TIME_LENGTH = "2025-01-01T00:00:00".length();
+
+    private RecordDecoder() {
+    }
+
+    /**
+     * Decodes a task record held in a string.
+     *
+     * @param record the record, e.g. "D | 0 | report | 2025-01-01"
+     * @return the decoded task
+     * @throws BugException if the record format is invalid
+     */
+    static Task decode(String record) throws BugException {
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+        return decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Decodes a task record from a range of bytes.
+     * Whitespace around the record and around each separator is ignored.
+     *
+     * @param bytes the buffer holding the record
+     * @param from the first byte of the record
+     * @param to one past the last byte of the record
+     * @return the decoded task
+     * @throws BugException if the record format is invalid
+     */
+    static Task decode(byte[] bytes, int from, int to) throws BugException {
+        while (from < to && isBlank(bytes[from])) {
+            from++;
+        }
+        while (to > from && isBlank(bytes[to - 1])) {
+            to--;
+        }
+
+        int[] starts = new int[MAX_FIELDS];
+        int[] ends = new int[MAX_FIELDS];
+        int fieldCount = split(bytes, from, to, starts, ends);
+
+        if (fieldCount < 3) {
+            throw new BugException("Invalid task format: insufficient data");
+        }
+
+        boolean isDone = ends[1] - starts[1] == 1 && bytes[starts[1]] == '1';
+        String description = new String(bytes, starts[2], ends[2] - starts[2], StandardCharsets.UTF_8);
+        byte type = ends[0] - starts[0] == 1 ? bytes[starts[0]] : 0;
+
+        Task task;
+        try {
+            switch (type) {
+                case 'T':
+                    if (fieldCount != 3) {
+                        throw new BugException("Invalid Todo format: expected 3 parts");
+                    }
+                    task = new ToDos(description);
+                    break;
+                case 'D':
+                    if (fieldCount != 4) {
+                        throw new BugException("Invalid Deadline format: expected 4 parts");
+                    }
+                    task = new Deadlines(description, parseDate(bytes, starts[3], ends[3]));
+                    break;
+                case 'E':
+                    if (fieldCount != 5) {
+                        throw new BugException("Invalid Event format: expected 5 parts");
+                    }
+                    LocalDateTime start = parseDateTime(bytes, starts[3], ends[3]);
+                    LocalDateTime end = parseDateTime(bytes, starts[4], ends[4]);
+                    task = new Events(description, start, end);
+                    break;
+                default:
+                    throw new BugException("Unknown task type: "
+                            + new String(bytes, starts[0], ends[0] - starts[0], StandardCharsets.UTF_8));
+            }
+
+            if (isDone) {
+                task.markAsDone();
+            }
+            return task;
+        } catch (DateTimeParseException e) {
+            throw new BugException("Invalid date format in task: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finds the fields of a trimmed record. Whitespace next to a separator is excluded from the fields and
+     * empty fields at the end are dropped, matching a split on {@code \s*\|\s*}.
+     * Only the boundaries of the first fields are recorded, since no task type accepts more.
+     *
+     * @param bytes the buffer holding the record
+     * @param from the first byte of the record
+     * @param to one past the last byte of the record
+     * @param starts receives the first byte of each field
+     * @param ends receives one past the last byte of each field
+     * @return the number of fields
+     */
+    private static int split(byte[] bytes, int from, int to, int[] starts, int[] ends) {
+        int count = 0;
+        int nonEmptyCount = 0;
+        int start = from;
+        while (true) {
+            int separator = start;
+            while (separator < to && bytes[separator] != '|') {
+                separator++;
+            }
+
+            int fieldStart = start;
+            int fieldEnd = separator;
+            if (count > 0) {
+                while (fieldStart < fieldEnd && isSpace(bytes[fieldStart])) {
+                    fieldStart++;
+                }
+            }
+            if (separator < to) {
+                while (fieldEnd > fieldStart && isSpace(bytes[fieldEnd - 1])) {
+                    fieldEnd--;
+                }
+            }
+            if (count < MAX_FIELDS) {
+                starts[count] = fieldStart;
+                ends[count] = fieldEnd;
+            }
+            count++;
+            if (fieldEnd > fieldStart) {
+                nonEmptyCount = count;
+            }
+
+            if (separator >= to) {
+                return nonEmptyCount;
+            }
+            start = separator + 1;
+        }
+    }
+
+    /**
+     * Matches the bytes {@link String#trim()} removes. Bytes of multi-byte UTF-8 characters never match.
+     *
+     * @param b the byte to check
+     * @return true if it is a control character or space
+     */
+    static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    /**
+     * Parses an ISO local date, reading "yyyy-MM-dd" directly.
+     *
+     * @param bytes the buffer holding the date
+     * @param from the first byte of the date
+     * @param to one past the last byte of the date
+     * @return the date
+     * @throws DateTimeParseException if the text is not a valid date
+     */
+    private static LocalDate parseDate(byte[] bytes, int from, int to) {
+        if (to - from == DATE_LENGTH && isDate(bytes, from)) {
+            try {
+                return LocalDate.of(digits(bytes, from, 4), digits(bytes, from + 5, 2), digits(bytes, from + 8, 2));
+            } catch (DateTimeException e) {
+                // Out of range, let the full parser report it
+            }
+        }
+        return LocalDate.parse(new String(bytes, from, to - from, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses an ISO local date-time, reading "yyyy-MM-ddTHH:mm" and "yyyy-MM-ddTHH:mm:ss" directly.
+     *
+     * @param bytes the buffer holding the date-time
+     * @param from the first byte of the date-time
+     * @param to one past the last byte of the date-time
+     * @return the date-time
+     * @throws DateTimeParseException if the text is not a valid date-time
+     */
+    private static LocalDateTime parseDateTime(byte[] bytes, int from, int to) {
+        int length = to - from;
+        boolean hasMinutes = length == MINUTE_DATE_TIME_LENGTH || length == SECOND_DATE_TIME_LENGTH;
+        boolean hasSeconds = length == SECOND_DATE_TIME_LENGTH;
+        if (hasMinutes && isDate(bytes, from) && bytes[from + 10] == 'T'
+                && isDigits(bytes, from + 11, 2) && bytes[from + 13] == ':' && isDigits(bytes, from + 14, 2)
+                && (!hasSeconds || bytes[from + 16] == ':' && isDigits(bytes, from + 17, 2))) {
+            try {
+                return LocalDateTime.of(digits(bytes, from, 4), digits(bytes, from + 5, 2),
+                        digits(bytes, from + 8, 2), digits(bytes, from + 11, 2), digits(bytes, from + 14, 2),
+                        hasSeconds ? digits(bytes, from + 17, 2) : 0);
+            } catch (DateTimeException e) {
+                // Out of range, let the full parser report it
+            }
+        }
+        return LocalDateTime.parse(new String(bytes, from, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks for "yyyy-MM-dd" at the given position.
+     *
+     * @param bytes the buffer
+     * @param from the first byte of the date
+     * @return true if the bytes have the shape of a date
+     */
+    private static boolean isDate(byte[] bytes, int from) {
+        return isDigits(bytes, from, 4) && bytes[from + 4] == '-' && isDigits(bytes, from + 5, 2)
+                && bytes[from + 7] == '-' && isDigits(bytes, from + 8, 2);
+    }
+
+    /**
+     * Checks that a run of bytes are all ASCII digits.
+     *
+     * @param bytes the buffer
+     * @param from the first byte to check
+     * @param count the number of bytes to check
+     * @return true if every byte is a digit
+     */
+    private static boolean isDigits(byte[] bytes, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            if (bytes[i] < '0' || bytes[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a run of ASCII digits as a decimal number.
+     *
+     * @param bytes the buffer
+     * @param from the first digit
+     * @param count the number of digits
+     * @return the number
+     */
+    private static int digits(byte[] bytes, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            value = value * 10 + (bytes[i] - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Matches the characters of the regex class {@code \s}.
+     *
+     * @param b the byte to check
+     * @return true if it is whitespace
+     */
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+}
@@ -0,0 +1,58 @@
+package storage;
+
+import task.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tasks read back from a snapshot file, together with what the file's header said about them.
+ */
+class Snapshot {
+    private final List<Task> tasks = new ArrayList<>();
+    private long generation = 0;
+    private boolean isComplete = true;
+
+    /**
+     * Returns the loaded tasks in file order.
+     *
+     * @return the mutable list of tasks
+     */
+    List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns the generation recorded in the snapshot header.
+     *
+     * @return the generation, or 0 if the snapshot has no header
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Records the generation found in the snapshot header.
+     *
+     * @param generation the generation
+     */
+    void setGeneration(long generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Returns whether every record in the file was intact.
+     *
+     * @return false if loading stopped at a damaged record
+     */
+    boolean isComplete() {
+        return isComplete;
+    }
+
+    /**
+     * Marks the snapshot as cut short at a damaged record.
+     */
+    void markDamaged() {
+        this.isComplete = false;
+    }
+}
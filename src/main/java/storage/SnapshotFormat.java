@@ -0,0 +1,11 @@
+package storage;
+
+/**
+ * On-disk encoding of the task snapshot.
+ */
+public enum SnapshotFormat {
+    /** Pipe-separated lines in bug.txt, readable and editable by hand. */
+    TEXT,
+    /** Length-prefixed binary records in bug.bin, loaded through a memory-mapped buffer. */
+    BINARY
+}
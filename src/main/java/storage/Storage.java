@@ -1,126 +1,434 @@
 package storage;
 
 import exception.BugException;
+import metrics.LatencyRecorder;
+import metrics.LoadEvent;
+import metrics.PersistEvent;
+import metrics.UpdateEvent;
 import task.*;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.Files;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeParseException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
 
 /**
  * Handles persistent storage of tasks to and from files.
  * Manages file I/O operations, task serialization, and data directory creation.
  * Uses pipe-separated format: T|status|description, D|status|description|date, E|status|description|start|end
+ * or, if configured, a binary snapshot in bug.bin. A newer snapshot found in the other format is migrated on
+ * load and kept in place.
+ * In journal mode, single mutations are appended to a journal next to the snapshot instead of
+ * rewriting the whole file, and {@link #load()} replays the journal on top of the snapshot.
+ * Once the journal grows past a threshold it is sealed and folded into a new snapshot on a background thread.
+ * Journal appends can optionally be handed to a writer thread that group-commits bursts of mutations.
  */
 public class Storage {
     private static final String FILE_NAME = "bug.txt";
-    private final Path path = Paths.get("data", FILE_NAME);
+    private static final String BINARY_EXTENSION = ".bin";
+    private static final String JOURNAL_NAME = "bug.journal";
+    private static final String SEALED_JOURNAL_NAME = "bug.journal.sealed";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String BACKUP_SUFFIX = ".bak";
+    private static final int DEFAULT_MAX_JOURNAL_RECORDS = 10_000;
+    private static final long DEFAULT_MAX_JOURNAL_BYTES = 4L * 1024 * 1024;
+
+    private final Path textPath;
+    private final Path binaryPath;
+    private final Journal journal;
+    private final Journal sealedJournal;
+    private final Object snapshotLock = new Object();
+    private final Object journalLock = new Object();
+    private volatile SnapshotFormat format = SnapshotFormat.TEXT;
+    private volatile long generation = 0;
+    private boolean isJournalReady = false;
+    private int maxJournalRecords = DEFAULT_MAX_JOURNAL_RECORDS;
+    private long maxJournalBytes = DEFAULT_MAX_JOURNAL_BYTES;
+    private ExecutorService compactor;
+    private Future<?> compaction;
+    private JournalWriter writer;
+    private boolean isInBatch = false;
+    private int batchChanges = 0;
+    private volatile boolean isCheckpointNeeded = false;
+
+    /**
+     * Creates a journaled storage backed by data/bug.txt.
+     */
+    public Storage() {
+        this(Paths.get("data", FILE_NAME), true);
+    }
+
+    /**
+     * Creates a storage backed by the given snapshot file.
+     * A binary snapshot, if enabled, is kept next to it with the extension replaced by .bin.
+     *
+     * @param path the text snapshot file location
+     * @param isJournaled whether single mutations are appended to a journal instead of rewriting the snapshot
+     */
+    public Storage(Path path, boolean isJournaled) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        this.textPath = path;
+        this.binaryPath = path.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + BINARY_EXTENSION);
+        this.journal = isJournaled ? new Journal(path.resolveSibling(JOURNAL_NAME)) : null;
+        this.sealedJournal = isJournaled ? new Journal(path.resolveSibling(SEALED_JOURNAL_NAME)) : null;
+    }
 
     /**
-     * Loads all tasks from the storage file.
+     * Sets how large the journal may grow before it is compacted into a new snapshot.
+     *
+     * @param maxRecords the maximum number of journal records
+     * @param maxBytes the maximum journal size in bytes
+     */
+    public void setCompactionThreshold(int maxRecords, long maxBytes) {
+        assert maxRecords > 0 && maxBytes > 0 : "compaction thresholds must be positive!";
+        this.maxJournalRecords = maxRecords;
+        this.maxJournalBytes = maxBytes;
+    }
+
+    /**
+     * Chooses the on-disk encoding of the snapshot. Must be called before {@link #load()}.
+     * The text format stays available as an import and export path: a snapshot in the format that is not
+     * selected is migrated into the selected one the next time tasks are loaded, if it is newer, and kept.
+     *
+     * @param format the snapshot format to read and write
+     */
+    public void setSnapshotFormat(SnapshotFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Sets how far each journal write is pushed towards the disk before it counts as saved.
+     *
+     * @param durability the durability level for journal writes
+     */
+    public void setDurability(Durability durability) {
+        if (journal != null) {
+            synchronized (journalLock) {
+                journal.setDurability(durability);
+            }
+        }
+    }
+
+    /**
+     * Switches journal appends to a background writer thread.
+     * Mutations then return as soon as their record is queued, and records arriving within the flush
+     * interval of each other are written and committed together.
+     *
+     * @param flushIntervalMillis how long the writer waits for more records before writing a batch
+     */
+    public void enableAsyncWrites(long flushIntervalMillis) {
+        if (journal == null || writer != null) {
+            return;
+        }
+        writer = new JournalWriter(journal, journalLock, this::rotateIfNeeded, flushIntervalMillis);
+    }
+
+    /**
+     * Loads all tasks from the storage file, then replays any journaled mutations on top.
      * Creates data directory if it doesn't exist, handles missing or corrupted files gracefully.
+     * A damaged snapshot is moved to a .bak file next to it before a new one can replace it.
+     * The time taken is recorded as a flight recorder event.
      *
      * @return list of loaded tasks, or empty list if file doesn't exist
      * @throws BugException if critical storage errors occur that prevent loading
      */
     public List<Task> load() throws BugException {
-        List<Task> tasks = new ArrayList<>();
+        LoadEvent event = new LoadEvent();
+        event.begin();
+        List<Task> tasks = loadTasks();
+        if (event.shouldCommit()) {
+            event.taskCount = tasks.size();
+            event.commit();
+        }
+        return tasks;
+    }
 
+    /**
+     * Reads the snapshot and replays the journals on top of it.
+     *
+     * @return the loaded tasks
+     * @throws BugException if loading fails
+     */
+    private List<Task> loadTasks() throws BugException {
+        ensureDataDirectoryExists();
+        migrateSnapshot();
+        Snapshot snapshot = readSnapshot(format);
+        List<Task> tasks = snapshot.getTasks();
+        generation = snapshot.getGeneration();
+        if (!snapshot.isComplete()) {
+            backUpDamagedSnapshot();
+        }
+
+        if (journal == null) {
+            return tasks;
+        }
+        synchronized (journalLock) {
+            if (snapshot.isComplete()) {
+                replayJournals(tasks);
+            } else {
+                // Journal records refer to positions in the full snapshot, so they cannot be replayed on a prefix
+                System.err.println("Warning: Discarding journal on top of damaged snapshot");
+                writeCheckpoint(tasks.size(), tasks::get);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Moves a damaged snapshot aside before anything is written over it, so that the tasks past the damage
+     * can still be recovered by hand. An older backup is never overwritten.
+     *
+     * @throws BugException if the snapshot cannot be moved
+     */
+    private void backUpDamagedSnapshot() throws BugException {
+        Path damaged = getSnapshotPath(format);
+        Path backup = damaged.resolveSibling(damaged.getFileName() + BACKUP_SUFFIX);
+        for (int i = 1; Files.exists(backup); i++) {
+            backup = damaged.resolveSibling(damaged.getFileName() + BACKUP_SUFFIX + i);
+        }
         try {
-            ensureDataDirectoryExists();
+            Files.move(damaged, backup);
+        } catch (IOException e) {
+            throw new BugException("Failed to back up damaged snapshot " + damaged.getFileName() + ": "
+                    + e.getMessage());
+        }
+        System.err.println("Warning: Moved damaged snapshot to " + backup.getFileName());
+    }
 
-            if (Files.notExists(path) || Files.size(path) == 0) {
-                return tasks;
+    /**
+     * Converts a snapshot left in the other format into the selected one, if it is newer than the snapshot
+     * in the selected format. The generation is kept so that existing journals still apply, and the other
+     * file is left untouched, so switching formats never removes the user's copy.
+     *
+     * @throws BugException if the snapshot cannot be converted
+     */
+    private void migrateSnapshot() throws BugException {
+        SnapshotFormat other = format == SnapshotFormat.TEXT ? SnapshotFormat.BINARY : SnapshotFormat.TEXT;
+        Path source = getSnapshotPath(other);
+        if (Files.notExists(source) || readGeneration(format) >= readGeneration(other)) {
+            return;
+        }
+
+        Snapshot snapshot = readSnapshot(other);
+        List<Task> tasks = snapshot.getTasks();
+        try {
+            synchronized (snapshotLock) {
+                writeTempSnapshot(snapshot.getGeneration(), tasks.size(), tasks::get);
+                moveTempSnapshotIntoPlace();
             }
+        } catch (IOException e) {
+            throw new BugException("Failed to migrate " + source.getFileName() + ": " + e.getMessage());
+        }
+    }
 
-            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+    /**
+     * Reads the generation of the snapshot file of the given format without loading its tasks.
+     *
+     * @param snapshotFormat the format to read
+     * @return the generation, or -1 if there is no such file
+     * @throws BugException if the file cannot be read
+     */
+    private long readGeneration(SnapshotFormat snapshotFormat) throws BugException {
+        try {
+            if (snapshotFormat == SnapshotFormat.TEXT) {
+                return TextSnapshot.readGeneration(textPath);
+            }
+            return BinarySnapshot.readGeneration(binaryPath);
+        } catch (IOException e) {
+            throw new BugException("Failed to read tasks from storage file: " + e.getMessage());
+        }
+    }
 
-            for (int lineNumber = 0; lineNumber < lines.size(); lineNumber++) {
-                String line = lines.get(lineNumber).trim();
-                if (line.isEmpty()) {
-                    continue;
-                }
+    /**
+     * Writes the tasks to a separate file in the readable text format, whatever format is selected.
+     * The file is not part of storage and is never read back automatically.
+     *
+     * @param tasks the tasks to export
+     * @param destination the file to write, replaced if it exists
+     * @throws BugException if the file cannot be written
+     */
+    public void exportText(TaskList tasks, Path destination) throws BugException {
+        try (FileChannel channel = FileChannel.open(destination, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            TextSnapshot.write(channel, generation, tasks.size(), tasks::get);
+        } catch (IOException e) {
+            throw new BugException("Failed to export tasks to " + destination + ": " + e.getMessage());
+        }
+    }
 
-                try {
-                    Task task = parseTaskFromLine(line);
-                    if (task != null) {
-                        tasks.add(task);
-                    }
-                } catch (Exception e) {
-                    // Log warning but continue processing other lines
-                    System.err.println("Warning: Skipping corrupted line " + (lineNumber + 1) + ": " + line);
-                }
+    /**
+     * Reads the tasks stored in the snapshot file of the given format.
+     *
+     * @param snapshotFormat the format to read
+     * @return the loaded snapshot, empty if the file doesn't exist
+     * @throws BugException if the snapshot cannot be read
+     */
+    private Snapshot readSnapshot(SnapshotFormat snapshotFormat) throws BugException {
+        try {
+            if (snapshotFormat == SnapshotFormat.TEXT) {
+                return TextSnapshot.read(textPath);
             }
+            return BinarySnapshot.read(binaryPath);
         } catch (IOException e) {
             throw new BugException("Failed to read tasks from storage file: " + e.getMessage());
         }
+    }
 
-        return tasks;
+    /**
+     * Replays the sealed and active journals on top of freshly loaded snapshot tasks.
+     * Journals chain by generation: the sealed journal applies to the snapshot and the active one to the
+     * snapshot the sealed journal will be compacted into. A journal written against an older snapshot is
+     * already contained in it and is discarded. If any journal cannot be replayed completely, the loaded
+     * tasks are written out as a new snapshot so that later records are not appended after a broken one.
+     *
+     * @param tasks the snapshot tasks to apply the journaled mutations to
+     * @throws BugException if the journals cannot be read or reset
+     */
+    private void replayJournals(List<Task> tasks) throws BugException {
+        long expected = generation;
+        boolean isComplete = true;
+        boolean hasSealedRecords = false;
+
+        long sealedBase = sealedJournal.readBase();
+        if (sealedBase == expected) {
+            isComplete = replay(sealedJournal, tasks);
+            hasSealedRecords = true;
+            expected++;
+        } else if (sealedBase >= 0) {
+            sealedJournal.delete();
+        }
+
+        if (isComplete && journal.readBase() == expected) {
+            isComplete = replay(journal, tasks);
+        } else {
+            journal.reset(expected);
+        }
+        isJournalReady = true;
+
+        if (!isComplete) {
+            writeCheckpoint(tasks.size(), tasks::get);
+        } else if (hasSealedRecords) {
+            scheduleCompaction();
+        }
     }
 
     /**
-     * Parses a single line from the storage file into a Task object.
+     * Applies every record of a journal to the list of tasks.
+     * Replay stops at the first record that cannot be applied or fails its checksum, since later records
+     * refer to positions after it.
      *
-     * @param line the line to parse
-     * @return the parsed Task, or null if parsing fails
-     * @throws BugException if the line format is invalid
+     * @param source the journal to replay
+     * @param tasks the tasks to mutate
+     * @return true if every record was applied
+     * @throws BugException if the journal cannot be read
      */
-    private Task parseTaskFromLine(String line) throws BugException {
-        String[] parts = line.split("\\s*\\|\\s*");
+    private boolean replay(Journal source, List<Task> tasks) throws BugException {
+        List<String> records = source.readRecords();
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                applyRecord(records.get(i), tasks);
+            } catch (Exception e) {
+                System.err.println("Warning: Ignoring journal from record " + (i + 1) + ": " + records.get(i));
+                return false;
+            }
+        }
+        if (source.isTruncated()) {
+            System.err.println("Warning: Ignoring journal from record " + (records.size() + 1) + ": bad checksum");
+            return false;
+        }
+        return true;
+    }
 
-        if (parts.length < 3) {
-            throw new BugException("Invalid task format: insufficient data");
+    /**
+     * Applies a single journal record to the list of tasks.
+     * Mark, unmark, delete and snooze records may name several tasks, written by one bulk command.
+     *
+     * @param record the journal record to apply
+     * @param tasks the tasks to mutate
+     * @throws BugException if the record is malformed or cannot be applied
+     */
+    private void applyRecord(String record, List<Task> tasks) throws BugException {
+        String[] parts = record.split("\\s*\\|\\s*", 2);
+        if (parts.length < 2) {
+            throw new BugException("Invalid journal record: missing arguments");
         }
 
-        String type = parts[0];
-        boolean isDone = "1".equals(parts[1]);
-        String description = parts[2];
+        String op = parts[0].trim();
+        if (op.equals("add")) {
+            tasks.add(RecordDecoder.decode(parts[1]));
+            return;
+        }
 
-        Task task;
-        try {
-            switch (type) {
-                case "T":
-                    if (parts.length != 3) {
-                        throw new BugException("Invalid Todo format: expected 3 parts");
-                    }
-                    task = new ToDos(description);
-                    break;
-                case "D":
-                    if (parts.length != 4) {
-                        throw new BugException("Invalid Deadline format: expected 4 parts");
-                    }
-                    LocalDate dueDate = LocalDate.parse(parts[3]);
-                    task = new Deadlines(description, dueDate);
-                    break;
-                case "E":
-                    if (parts.length != 5) {
-                        throw new BugException("Invalid Event format: expected 5 parts");
-                    }
-                    LocalDateTime start = LocalDateTime.parse(parts[3]);
-                    LocalDateTime end = LocalDateTime.parse(parts[4]);
-                    task = new Events(description, start, end);
-                    break;
-                default:
-                    throw new BugException("Unknown task type: " + type);
-            }
-
-            if (isDone) {
-                task.markAsDone();
-            }
-            return task;
-        } catch (DateTimeParseException e) {
-            throw new BugException("Invalid date format in task: " + e.getMessage());
+        String[] args = parts[1].split("\\s*\\|\\s*");
+        switch (op) {
+            case "mark":
+                for (String arg : args) {
+                    tasks.get(Integer.parseInt(arg)).markAsDone();
+                }
+                break;
+            case "unmark":
+                for (String arg : args) {
+                    tasks.get(Integer.parseInt(arg)).markAsUndone();
+                }
+                break;
+            case "delete":
+                removeAll(tasks, args);
+                break;
+            case "snooze":
+                Duration duration = Duration.parse(args[args.length - 1]);
+                for (int i = 0; i < args.length - 1; i++) {
+                    tasks.get(Integer.parseInt(args[i])).snooze(duration);
+                }
+                break;
+            default:
+                throw new BugException("Unknown journal operation: " + op);
         }
     }
 
+    /**
+     * Removes the tasks at the given indices in one pass over the list.
+     * The indices come from a descending delete record, so each one is also the task's original position.
+     *
+     * @param tasks the tasks to remove from
+     * @param args the indices of the tasks to remove
+     */
+    private static void removeAll(List<Task> tasks, String[] args) {
+        if (args.length == 1) {
+            tasks.remove(Integer.parseInt(args[0]));
+            return;
+        }
+
+        BitSet removed = new BitSet(tasks.size());
+        for (String arg : args) {
+            int index = Integer.parseInt(arg);
+            if (index >= tasks.size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + tasks.size());
+            }
+            removed.set(index);
+        }
+        int kept = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (!removed.get(i)) {
+                tasks.set(kept++, tasks.get(i));
+            }
+        }
+        tasks.subList(kept, tasks.size()).clear();
+    }
+
     /**
      * Ensures the data directory exists, creating it if necessary.
      *
@@ -128,8 +436,8 @@ public class Storage {
      */
     private void ensureDataDirectoryExists() throws BugException {
         try {
-            if (path.getParent() != null) {
-                Files.createDirectories(path.getParent());
+            if (textPath.getParent() != null) {
+                Files.createDirectories(textPath.getParent());
             }
         } catch (IOException e) {
             throw new BugException("Failed to create data directory: " + e.getMessage());
@@ -138,23 +446,450 @@ public class Storage {
 
     /**
      * Saves all tasks to the storage file.
-     * Overwrites existing file content with current task list in pipe-separated format.
+     * Writes the current task list in pipe-separated format to a temporary file and atomically swaps it in,
+     * so a crash mid-save leaves the previous snapshot intact. Then empties the journals since the new
+     * snapshot already contains their records. The time taken is recorded as the persist phase and as a
+     * flight recorder event.
      *
      * @param tasks the task list to save to file
      * @throws BugException if saving fails
      */
     public void update(TaskList tasks) throws BugException {
+        UpdateEvent event = new UpdateEvent();
+        event.begin();
+        long start = System.nanoTime();
         try {
+            long bytesWritten = writeCheckpoint(tasks.size(), tasks::get);
+            if (event.shouldCommit()) {
+                event.taskCount = tasks.size();
+                event.bytesWritten = bytesWritten;
+                event.commit();
+            }
+        } finally {
+            LatencyRecorder.getDefault().record(LatencyRecorder.Phase.PERSIST, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Writes a new snapshot that supersedes every journal, then starts an empty journal on top of it.
+     *
+     * @param count the number of tasks to save
+     * @param taskAt returns the task at a given zero-based index
+     * @return the size of the new snapshot in bytes
+     * @throws BugException if saving fails
+     */
+    private long writeCheckpoint(int count, IntFunction<Task> taskAt) throws BugException {
+        ensureDataDirectoryExists();
+
+        synchronized (journalLock) {
+            long nextGeneration;
+            long bytesWritten;
+            synchronized (snapshotLock) {
+                nextGeneration = Math.max(generation, journal == null ? 0 : journal.getBase()) + 1;
+                try {
+                    bytesWritten = writeTempSnapshot(nextGeneration, count, taskAt);
+                    moveTempSnapshotIntoPlace();
+                } catch (IOException e) {
+                    throw new BugException("Failed to save tasks to storage: " + e.getMessage());
+                }
+                generation = nextGeneration;
+            }
+
+            if (journal != null) {
+                journal.reset(nextGeneration);
+                sealedJournal.delete();
+                isJournalReady = true;
+            }
+            if (writer != null) {
+                writer.discardPending(); // Only once the snapshot and fresh journal are in place
+            }
+            isCheckpointNeeded = false;
+            return bytesWritten;
+        }
+    }
+
+    /**
+     * Writes a complete snapshot in the selected format to the temporary file next to the real one and
+     * forces it to disk. Each record is sealed with its checksum.
+     *
+     * @param snapshotGeneration the generation to record in the header
+     * @param count the number of tasks to write
+     * @param taskAt returns the task at a given zero-based index
+     * @return the size of the written file in bytes
+     * @throws IOException if writing fails
+     */
+    private long writeTempSnapshot(long snapshotGeneration, int count, IntFunction<Task> taskAt)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(getTempPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (format == SnapshotFormat.BINARY) {
+                BinarySnapshot.write(channel, snapshotGeneration, count, taskAt);
+            } else {
+                TextSnapshot.write(channel, snapshotGeneration, count, taskAt);
+            }
+            channel.force(true);
+            return channel.size();
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the temporary file, so readers only ever see the old or the new snapshot.
+     * Falls back to a plain replacing move on file systems without atomic renames.
+     *
+     * @throws IOException if the file cannot be moved
+     */
+    private void moveTempSnapshotIntoPlace() throws IOException {
+        Path target = getSnapshotPath(format);
+        try {
+            Files.move(getTempPath(), target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(getTempPath(), target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the snapshot file for the given format.
+     *
+     * @param snapshotFormat the snapshot format
+     * @return the path of bug.txt or bug.bin
+     */
+    private Path getSnapshotPath(SnapshotFormat snapshotFormat) {
+        return snapshotFormat == SnapshotFormat.TEXT ? textPath : binaryPath;
+    }
+
+    /**
+     * Returns the location new snapshots are written to before they replace the real one.
+     *
+     * @return the temporary snapshot path
+     */
+    private Path getTempPath() {
+        Path target = getSnapshotPath(format);
+        return target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Persists a task that was just appended to the list.
+     *
+     * @param tasks the task list after the addition
+     * @param task the added task
+     * @throws BugException if saving fails
+     */
+    public void saveAdded(TaskList tasks, Task task) throws BugException {
+        appendOrUpdate(tasks, "add | " + task.toFileString());
+    }
+
+    /**
+     * Persists tasks that were just marked as done, as a single journal record.
+     *
+     * @param tasks the task list after the change
+     * @param indices the zero-based indices of the marked tasks
+     * @throws BugException if saving fails
+     */
+    public void saveMarked(TaskList tasks, int... indices) throws BugException {
+        appendOrUpdate(tasks, indexRecord("mark", indices).toString());
+    }
+
+    /**
+     * Persists tasks that were just marked as not done, as a single journal record.
+     *
+     * @param tasks the task list after the change
+     * @param indices the zero-based indices of the unmarked tasks
+     * @throws BugException if saving fails
+     */
+    public void saveUnmarked(TaskList tasks, int... indices) throws BugException {
+        appendOrUpdate(tasks, indexRecord("unmark", indices).toString());
+    }
+
+    /**
+     * Persists the removal of tasks, as a single journal record.
+     * The tasks must have been removed from the highest index down, so every index is also its
+     * position before any of them were removed.
+     *
+     * @param tasks the task list after the removal
+     * @param indices the zero-based indices the tasks had before they were removed, in descending order
+     * @throws BugException if saving fails
+     */
+    public void saveDeleted(TaskList tasks, int... indices) throws BugException {
+        assert isDescending(indices) : "deleted indices must be in descending order!";
+        appendOrUpdate(tasks, indexRecord("delete", indices).toString());
+    }
+
+    /**
+     * Persists a task that was just snoozed.
+     *
+     * @param tasks the task list after the change
+     * @param index the zero-based index of the snoozed task
+     * @param duration the duration the task was postponed by
+     * @throws BugException if saving fails
+     */
+    public void saveSnoozed(TaskList tasks, int index, Duration duration) throws BugException {
+        saveSnoozed(tasks, new int[] {index}, duration);
+    }
+
+    /**
+     * Persists tasks that were all just snoozed by the same duration, as a single journal record.
+     *
+     * @param tasks the task list after the change
+     * @param indices the zero-based indices of the snoozed tasks
+     * @param duration the duration the tasks were postponed by
+     * @throws BugException if saving fails
+     */
+    public void saveSnoozed(TaskList tasks, int[] indices, Duration duration) throws BugException {
+        appendOrUpdate(tasks, indexRecord("snooze", indices).append(" | ").append(duration).toString());
+    }
+
+    /**
+     * Starts a journal record for an operation on one or more task indices.
+     *
+     * @param op the operation name
+     * @param indices the zero-based indices the operation applies to
+     * @return a buffer holding "op | index | index ..."
+     */
+    private static StringBuilder indexRecord(String op, int[] indices) {
+        assert indices.length > 0 : "a record must name at least one task!";
+        StringBuilder record = new StringBuilder(op.length() + indices.length * 8);
+        record.append(op);
+        for (int index : indices) {
+            record.append(" | ").append(index);
+        }
+        return record;
+    }
+
+    /**
+     * Checks that indices are strictly decreasing.
+     *
+     * @param indices the indices to check
+     * @return true if every index is smaller than the one before it
+     */
+    private static boolean isDescending(int[] indices) {
+        for (int i = 1; i < indices.length; i++) {
+            if (indices[i] >= indices[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts holding back changes so that they can be committed together or thrown away.
+     * While a batch is open nothing is written to disk, so a crash or a rollback leaves the last commit intact.
+     */
+    public void beginBatch() {
+        isInBatch = true;
+        batchChanges = 0;
+    }
+
+    /**
+     * Persists every change made since {@link #beginBatch()} as one new snapshot and closes the batch.
+     * The snapshot replaces the old one atomically, so either the whole batch is saved or none of it is.
+     *
+     * @param tasks the task list after the batch
+     * @throws BugException if saving fails
+     */
+    public void commitBatch(TaskList tasks) throws BugException {
+        assert isInBatch : "no batch to commit!";
+        isInBatch = false;
+        if (batchChanges > 0) {
+            update(tasks);
+        }
+        batchChanges = 0;
+    }
+
+    /**
+     * Throws away every change made since {@link #beginBatch()} and closes the batch.
+     *
+     * @return the tasks as of the last commit, reloaded from disk
+     * @throws BugException if the tasks cannot be reloaded
+     */
+    public List<Task> rollbackBatch() throws BugException {
+        assert isInBatch : "no batch to roll back!";
+        isInBatch = false;
+        batchChanges = 0;
+        return load();
+    }
+
+    /**
+     * Writes out queued journal records, waits for a running compaction to finish and closes
+     * any open journal file handle.
+     */
+    public void close() {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        if (compactor != null) {
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            compactor = null;
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Appends a record to the journal, or rewrites the whole snapshot when journaling is disabled.
+     * Nothing is written while a batch is open. The time taken is recorded as the persist phase and as a
+     * flight recorder event.
+     *
+     * @param tasks the task list after the change
+     * @param record the journal record describing the change
+     * @throws BugException if saving fails
+     */
+    private void appendOrUpdate(TaskList tasks, String record) throws BugException {
+        if (isInBatch) {
+            batchChanges++;
+            return;
+        }
+        PersistEvent event = new PersistEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            appendOrCheckpoint(tasks, record);
+            if (event.shouldCommit()) {
+                event.operation = record.substring(0, record.indexOf(' '));
+                event.taskCount = tasks.size();
+                event.commit();
+            }
+        } finally {
+            LatencyRecorder.getDefault().record(LatencyRecorder.Phase.PERSIST, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Appends a record to the journal, or rewrites the whole snapshot when journaling is disabled or the
+     * sealed journal turned out to be damaged and can no longer be compacted.
+     *
+     * @param tasks the task list after the change
+     * @param record the journal record describing the change
+     * @throws BugException if saving fails
+     */
+    private void appendOrCheckpoint(TaskList tasks, String record) throws BugException {
+        if (journal == null || isCheckpointNeeded) {
+            writeCheckpoint(tasks.size(), tasks::get);
+            return;
+        }
+
+        if (!isJournalReady) {
             ensureDataDirectoryExists();
+            synchronized (journalLock) {
+                if (journal.readBase() != generation) {
+                    journal.reset(generation);
+                }
+            }
+            isJournalReady = true;
+        }
+
+        if (writer != null && writer.getFailure() != null) {
+            retryFailedWrites(tasks);
+            return;
+        }
+        if (writer != null) {
+            writer.submit(record);
+            return;
+        }
+        synchronized (journalLock) {
+            journal.append(record);
+            rotateIfNeeded();
+        }
+    }
+
+    /**
+     * Saves the changes of a batch the journal writer failed to write, together with the current change,
+     * by writing a full snapshot from the tasks in memory. If that fails too, the failed batch stays queued
+     * for the next attempt and the current command is told which changes are not saved.
+     *
+     * @param tasks the task list after the current change
+     * @throws BugException if the snapshot cannot be written either
+     */
+    private void retryFailedWrites(TaskList tasks) throws BugException {
+        BugException failure = writer.getFailure();
+        try {
+            writeCheckpoint(tasks.size(), tasks::get);
+        } catch (BugException e) {
+            throw new BugException("Changes are not being saved! " + failure.getMessage()
+                    + "; retrying failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Seals the active journal and schedules it to be compacted into a new snapshot once it has grown past
+     * the compaction threshold. Must be called while holding the journal lock.
+     * Only the rename happens on the calling thread; reading and rewriting the snapshot happens in the background.
+     * Nothing is done while a previous compaction is still running.
+     *
+     * @throws BugException if the journal cannot be sealed
+     */
+    private void rotateIfNeeded() throws BugException {
+        if (journal.getRecordCount() < maxJournalRecords && journal.getByteCount() < maxJournalBytes) {
+            return;
+        }
+        if (compaction != null && !compaction.isDone() || isCheckpointNeeded) {
+            return;
+        }
+
+        if (sealedJournal.readBase() < 0) {
+            long base = journal.getBase();
+            journal.moveTo(sealedJournal.getPath());
+            journal.reset(base + 1);
+        }
+        scheduleCompaction();
+    }
+
+    /**
+     * Submits the sealed journal for compaction on the background compactor thread.
+     */
+    private void scheduleCompaction() {
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "bug-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        compaction = compactor.submit(this::compact);
+    }
 
-            try (FileWriter writer = new FileWriter(path.toFile())) {
-                for (int i = 0; i < tasks.size(); i++) {
-                    writer.write(tasks.get(i).toFileString());
-                    writer.write(System.lineSeparator());
+    /**
+     * Folds the sealed journal into a fresh snapshot.
+     * The snapshot is written to a temporary file, forced to disk and atomically moved over the old one.
+     * Nothing is written if a full update replaced the snapshot in the meantime.
+     * If the sealed journal cannot be replayed, the next mutation writes a full snapshot from the tasks in
+     * memory instead, which also drops the sealed journal.
+     */
+    private void compact() {
+        try {
+            Snapshot snapshot;
+            synchronized (snapshotLock) {
+                snapshot = readSnapshot(format);
+            }
+            long base = snapshot.getGeneration();
+            List<Task> tasks = snapshot.getTasks();
+
+            if (sealedJournal.readBase() != base) {
+                return;
+            }
+            if (!snapshot.isComplete() || !replay(sealedJournal, tasks)) {
+                System.err.println("Warning: Sealed journal cannot be compacted, saving a full snapshot instead");
+                isCheckpointNeeded = true;
+                return;
+            }
+
+            synchronized (snapshotLock) {
+                if (generation != base) {
+                    return;
                 }
+                writeTempSnapshot(base + 1, tasks.size(), tasks::get);
+                moveTempSnapshotIntoPlace();
+                generation = base + 1;
             }
-        } catch (IOException e) {
-            throw new BugException("Failed to save tasks to storage: " + e.getMessage());
+            sealedJournal.delete();
+        } catch (IOException | BugException e) {
+            System.err.println("Warning: Journal compaction failed: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
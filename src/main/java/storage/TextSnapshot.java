@@ -0,0 +1,323 @@
+package storage;
+
+import exception.BugException;
+import task.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes the pipe-separated text snapshot format.
+ * The file starts with a "# gen N crc32c" header followed by one sealed task record per line.
+ * Large files are split into newline-aligned byte ranges that are parsed in parallel and joined in file order.
+ * Writing streams every task through one reused line builder and byte buffer straight into the file channel.
+ */
+final class TextSnapshot {
+    private static final String GENERATION_PREFIX = "# gen ";
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int MIN_CHUNK_BYTES = 256 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private TextSnapshot() {
+    }
+
+    /**
+     * Loads a text snapshot.
+     * In a checksummed snapshot, loading stops at the first record whose checksum does not match and keeps
+     * the intact prefix. Older snapshots without checksums skip lines that cannot be parsed.
+     * Warnings name the line of the file they refer to, however the file was split up.
+     *
+     * @param path the text snapshot file
+     * @return the loaded snapshot, empty if the file doesn't exist
+     * @throws IOException if the file cannot be read
+     */
+    static Snapshot read(Path path) throws IOException {
+        Snapshot snapshot = new Snapshot();
+        if (Files.notExists(path) || Files.size(path) == 0) {
+            return snapshot;
+        }
+
+        byte[] bytes = Files.readAllBytes(path);
+        int bodyStart = 0;
+        int firstLine = 0;
+        boolean isChecksummed = false;
+
+        int headerEnd = lineEnd(bytes, 0, bytes.length);
+        String header = new String(bytes, 0, headerEnd, StandardCharsets.UTF_8).trim();
+        if (header.startsWith(GENERATION_PREFIX)) {
+            snapshot.setGeneration(parseGeneration(header));
+            isChecksummed = Checksums.isMarked(header);
+            bodyStart = Math.min(headerEnd + 1, bytes.length);
+            firstLine = 1;
+        }
+
+        List<Chunk> chunks = split(bytes, bodyStart, isChecksummed);
+        if (chunks.size() == 1) {
+            chunks.get(0).compute();
+        } else {
+            ForkJoinTask.invokeAll(chunks);
+        }
+        join(snapshot, chunks, firstLine);
+        return snapshot;
+    }
+
+    /**
+     * Reads only the generation from the header of a text snapshot.
+     *
+     * @param path the text snapshot file
+     * @return the generation, 0 if the file has no header, or -1 if it doesn't exist
+     * @throws IOException if the file cannot be read
+     */
+    static long readGeneration(Path path) throws IOException {
+        if (Files.notExists(path)) {
+            return -1;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            return header != null && header.startsWith(GENERATION_PREFIX) ? parseGeneration(header.trim()) : 0;
+        }
+    }
+
+    /**
+     * Writes a complete text snapshot to an open channel.
+     *
+     * @param channel the destination, positioned at the start of an empty file
+     * @param generation the generation to record in the header
+     * @param count the number of tasks to write
+     * @param taskAt returns the task at a given zero-based index
+     * @throws IOException if writing fails
+     */
+    static void write(FileChannel channel, long generation, int count, IntFunction<Task> taskAt)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        byte[] separator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        StringBuilder line = new StringBuilder();
+        CRC32C crc = new CRC32C();
+
+        line.append(GENERATION_PREFIX).append(generation).append(' ').append(Checksums.MARKER);
+        buffer = ensureRoom(channel, buffer, maxBytes(encoder, line) + separator.length);
+        encode(encoder, line, buffer);
+        buffer.put(separator);
+
+        for (int i = 0; i < count; i++) {
+            line.setLength(0);
+            taskAt.apply(i).appendFileString(line);
+            buffer = ensureRoom(channel, buffer, maxBytes(encoder, line) + Checksums.SUFFIX_LENGTH + separator.length);
+            int recordStart = buffer.position();
+            encode(encoder, line, buffer);
+            Checksums.seal(buffer, recordStart, crc);
+            buffer.put(separator);
+        }
+        BinarySnapshot.drain(channel, buffer);
+    }
+
+    /**
+     * Returns the most bytes a line can take up once encoded.
+     *
+     * @param encoder the encoder that will be used
+     * @param line the line to encode
+     * @return the upper bound in bytes
+     */
+    private static int maxBytes(CharsetEncoder encoder, CharSequence line) {
+        return (int) Math.ceil(line.length() * (double) encoder.maxBytesPerChar());
+    }
+
+    /**
+     * Makes sure the buffer can take the given number of bytes, writing out what it holds if needed.
+     *
+     * @param channel the destination of the buffered bytes
+     * @param buffer the buffer in write mode
+     * @param bytes the number of bytes about to be put
+     * @return the buffer to continue with, which is larger than before if the record didn't fit at all
+     * @throws IOException if writing fails
+     */
+    private static ByteBuffer ensureRoom(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        BinarySnapshot.drain(channel, buffer);
+        return buffer.capacity() >= bytes ? buffer : ByteBuffer.allocateDirect(bytes);
+    }
+
+    /**
+     * Encodes a line into the buffer as UTF-8, replacing unpaired surrogates like {@link String#getBytes}.
+     *
+     * @param encoder the encoder to reuse
+     * @param line the line to encode
+     * @param buffer the buffer in write mode, with room for the encoded line
+     */
+    private static void encode(CharsetEncoder encoder, CharSequence line, ByteBuffer buffer) {
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(line), buffer, true);
+        encoder.flush(buffer);
+    }
+
+    /**
+     * Parses the generation number out of a snapshot header line.
+     *
+     * @param line the header line
+     * @return the generation, or 0 if the header is malformed
+     */
+    private static long parseGeneration(String line) {
+        try {
+            return Long.parseLong(line.substring(GENERATION_PREFIX.length()).trim().split(" ", 2)[0]);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Splits the records after the header into byte ranges that each end on a line boundary.
+     * Small files end up in a single range so they are parsed on the calling thread.
+     *
+     * @param bytes the whole file
+     * @param from the first byte after the header
+     * @param isChecksummed whether records carry checksums
+     * @return the ranges in file order
+     */
+    private static List<Chunk> split(byte[] bytes, int from, boolean isChecksummed) {
+        int length = bytes.length - from;
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        int count = Math.max(1, Math.min(threads * CHUNKS_PER_THREAD, length / MIN_CHUNK_BYTES));
+        int size = length / count;
+
+        List<Chunk> chunks = new ArrayList<>(count);
+        int start = from;
+        for (int i = 1; i <= count && start < bytes.length; i++) {
+            int end = i == count ? bytes.length : Math.min(lineEnd(bytes, from + i * size, bytes.length) + 1,
+                    bytes.length);
+            if (end > start) {
+                chunks.add(new Chunk(bytes, start, end, isChecksummed));
+                start = end;
+            }
+        }
+        if (chunks.isEmpty()) {
+            chunks.add(new Chunk(bytes, from, from, isChecksummed));
+        }
+        return chunks;
+    }
+
+    /**
+     * Concatenates the parsed ranges in file order and reports their warnings with file line numbers.
+     *
+     * @param snapshot the snapshot to add the tasks to
+     * @param chunks the parsed ranges in file order
+     * @param firstLine the zero-based line number of the first range
+     */
+    private static void join(Snapshot snapshot, List<Chunk> chunks, int firstLine) {
+        int lineOffset = firstLine;
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.skippedLines.size(); i++) {
+                System.err.println("Warning: Skipping corrupted line " + (lineOffset + chunk.skippedLines.get(i) + 1)
+                        + ": " + chunk.skippedRecords.get(i));
+            }
+            snapshot.getTasks().addAll(chunk.tasks);
+            if (chunk.damagedLine >= 0) {
+                System.err.println("Warning: Snapshot is damaged from line " + (lineOffset + chunk.damagedLine + 1)
+                        + ", keeping the " + snapshot.getTasks().size() + " tasks before it");
+                snapshot.markDamaged();
+                return;
+            }
+            lineOffset += chunk.lineCount;
+        }
+    }
+
+    /**
+     * Finds the end of the line starting at or containing the given position.
+     *
+     * @param bytes the file contents
+     * @param from where to start looking
+     * @param limit one past the last byte to look at
+     * @return the index of the next newline, or the limit if there is none
+     */
+    private static int lineEnd(byte[] bytes, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * A newline-aligned range of the file, parsed on its own and remembering line numbers relative to its start.
+     */
+    private static class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] bytes;
+        private final int from;
+        private final int to;
+        private final boolean isChecksummed;
+        private final List<Task> tasks = new ArrayList<>();
+        private final List<Integer> skippedLines = new ArrayList<>();
+        private final List<String> skippedRecords = new ArrayList<>();
+        private int lineCount = 0;
+        private int damagedLine = -1;
+
+        private Chunk(byte[] bytes, int from, int to, boolean isChecksummed) {
+            this.bytes = bytes;
+            this.from = from;
+            this.to = to;
+            this.isChecksummed = isChecksummed;
+        }
+
+        @Override
+        protected void compute() {
+            int start = from;
+            while (start < to) {
+                int lineEnd = lineEnd(bytes, start, to);
+                int lineNumber = lineCount++;
+                int recordStart = start;
+                int recordEnd = lineEnd;
+                start = lineEnd + 1;
+                while (recordStart < recordEnd && RecordDecoder.isBlank(bytes[recordStart])) {
+                    recordStart++;
+                }
+                while (recordEnd > recordStart && RecordDecoder.isBlank(bytes[recordEnd - 1])) {
+                    recordEnd--;
+                }
+                if (recordStart == recordEnd) {
+                    continue;
+                }
+
+                if (isChecksummed) {
+                    recordEnd = Checksums.unseal(bytes, recordStart, recordEnd);
+                    if (recordEnd < 0) {
+                        damagedLine = lineNumber;
+                        return;
+                    }
+                }
+
+                try {
+                    tasks.add(RecordDecoder.decode(bytes, recordStart, recordEnd));
+                } catch (BugException | RuntimeException e) {
+                    // Remember the line for the warning but continue processing other lines, so one bad
+                    // record cannot abort the chunks being parsed alongside this one
+                    skippedLines.add(lineNumber);
+                    skippedRecords.add(new String(bytes, recordStart, recordEnd - recordStart,
+                            StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package task;
+
+/**
+ * Folds text one character at a time for case-insensitive matching.
+ * Unlike {@link String#toLowerCase()}, folding never depends on the surrounding characters, so a folded
+ * substring always stays a substring of the folded text. Characters that
+ * {@link String#regionMatches(boolean, int, String, int, int)} treats as equal fold to the same character.
+ */
+final class CaseFolding {
+
+    private CaseFolding() {
+    }
+
+    /**
+     * Folds a single character.
+     *
+     * @param c the character to fold
+     * @return the folded character
+     */
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Folds every character of a string.
+     *
+     * @param text the text to fold
+     * @return the folded text, of the same length
+     */
+    static String fold(String text) {
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(text.charAt(i));
+        }
+        return new String(folded);
+    }
+
+    /**
+     * Checks whether text contains a keyword, ignoring case.
+     *
+     * @param text the text to search
+     * @param keyword the text to look for
+     * @return true if the keyword appears anywhere in the text
+     */
+    static boolean containsIgnoreCase(String text, String keyword) {
+        for (int i = 0; i + keyword.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, keyword, 0, keyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Sorted index of deadline tasks keyed on their due date.
+ * Range lookups seek to the first date in the window and walk forward, so they cost O(log n + k).
+ * Tasks due on the same day are kept in the order they were indexed.
+ */
+class DeadlineIndex {
+    private final TreeMap<LocalDate, Set<Task>> byDate = new TreeMap<>();
+
+    /**
+     * Indexes a task if it is a deadline.
+     *
+     * @param task the task to index
+     */
+    void add(Task task) {
+        if (task instanceof Deadlines) {
+            byDate.computeIfAbsent(((Deadlines) task).getDueDate(), d -> new LinkedHashSet<>()).add(task);
+        }
+    }
+
+    /**
+     * Removes a task from the index if it is a deadline. Must be called before its due date changes.
+     *
+     * @param task the task to remove
+     */
+    void remove(Task task) {
+        if (!(task instanceof Deadlines)) {
+            return;
+        }
+        LocalDate dueDate = ((Deadlines) task).getDueDate();
+        Set<Task> tasks = byDate.get(dueDate);
+        if (tasks == null) {
+            return;
+        }
+        tasks.remove(task);
+        if (tasks.isEmpty()) {
+            byDate.remove(dueDate);
+        }
+    }
+
+    /**
+     * Finds the deadlines due within a window of days.
+     *
+     * @param from the first day of the window
+     * @param to the last day of the window
+     * @return the deadlines in the window, earliest first
+     */
+    List<Task> between(LocalDate from, LocalDate to) {
+        List<Task> matches = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return matches;
+        }
+        for (Set<Task> tasks : byDate.subMap(from, true, to, true).values()) {
+            matches.addAll(tasks);
+        }
+        return matches;
+    }
+}
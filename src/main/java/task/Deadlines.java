@@ -24,6 +24,15 @@ public class Deadlines extends Task {
         this.dueDate = dueDate; // Set the due date for the deadline task
     }
 
+    /**
+     * Returns the due date of the deadline.
+     *
+     * @return the due date
+     */
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
     /**
      * Returns a formatted string representation of the deadline task.
      *
@@ -35,14 +44,14 @@ public class Deadlines extends Task {
     }
 
     /**
-     * Returns the file storage format for this deadline task.
+     * Appends the file storage format for this deadline task.
      *
-     * @return pipe-separated string for file storage
+     * @param out the buffer to append "D | status | description | date" to
      */
     @Override
-    public String toFileString() {
-        int status = isDone ? 1 : 0;
-        return String.format("D | %d | %s | %s", status, description, dueDate);
+    public void appendFileString(StringBuilder out) {
+        out.append("D | ").append(isDone ? '1' : '0').append(" | ").append(description).append(" | ");
+        appendDate(out, dueDate);
     }
 
     /**
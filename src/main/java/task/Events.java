@@ -26,6 +26,24 @@ public class Events extends Task {
         this.end = end;
     }
 
+    /**
+     * Returns the start time of the event.
+     *
+     * @return the start time
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the end time of the event.
+     *
+     * @return the end time
+     */
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
     /**
      * Returns a formatted string representation of the event task.
      *
@@ -37,14 +55,16 @@ public class Events extends Task {
     }
 
     /**
-     * Returns the file storage format for this event task.
+     * Appends the file storage format for this event task.
      *
-     * @return pipe-separated string for file storage
+     * @param out the buffer to append "E | status | description | start | end" to
      */
     @Override
-    public String toFileString() {
-        int status = isDone ? 1 : 0;
-        return String.format("E | %d | %s | %s | %s", status, description, start, end);
+    public void appendFileString(StringBuilder out) {
+        out.append("E | ").append(isDone ? '1' : '0').append(" | ").append(description).append(" | ");
+        appendDateTime(out, start);
+        out.append(" | ");
+        appendDateTime(out, end);
     }
 
     /**
@@ -0,0 +1,94 @@
+package task;
+
+/**
+ * Binary indexed tree over 0/1 slot occupancy.
+ * Answers "how many occupied slots come before this one" and "which slot is the k-th occupied one"
+ * in logarithmic time, which turns a list with tombstones into an order-statistic list.
+ */
+class FenwickTree {
+    private int[] tree;
+    private int highestBit;
+
+    /**
+     * Creates a tree for the given number of slots, all empty.
+     *
+     * @param capacity the number of slots
+     */
+    FenwickTree(int capacity) {
+        reset(capacity, 0);
+    }
+
+    /**
+     * Returns the number of slots the tree covers.
+     *
+     * @return the capacity
+     */
+    int capacity() {
+        return tree.length - 1;
+    }
+
+    /**
+     * Changes the count of a slot.
+     *
+     * @param slot the zero-based slot
+     * @param delta the amount to add, 1 to occupy or -1 to free the slot
+     */
+    void add(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Counts the occupied slots before a slot.
+     *
+     * @param slot the zero-based slot
+     * @return the number of occupied slots with a lower index
+     */
+    int countBefore(int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Finds the slot holding the k-th occupied entry.
+     *
+     * @param k the zero-based rank among occupied slots, which must exist
+     * @return the zero-based slot
+     */
+    int findKth(int k) {
+        int position = 0;
+        int remaining = k + 1;
+        for (int step = highestBit; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Rebuilds the tree in linear time with a prefix of occupied slots.
+     *
+     * @param capacity the new number of slots
+     * @param occupied the number of leading slots that are occupied; the rest are empty
+     */
+    void reset(int capacity, int occupied) {
+        tree = new int[capacity + 1];
+        highestBit = Integer.highestOneBit(Math.max(capacity, 1));
+        for (int i = 1; i <= capacity; i++) {
+            if (i <= occupied) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
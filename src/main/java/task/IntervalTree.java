@@ -0,0 +1,316 @@
+package task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Interval tree over events, ordered by start time and augmented with the latest end time in each subtree.
+ * It is balanced as a treap, so updates take expected O(log n) and overlap queries O(log n + k).
+ * Events are treated as half-open intervals [start, end), so back-to-back events do not overlap.
+ */
+class IntervalTree {
+    private final Random random = new Random();
+    private Node root;
+
+    /**
+     * Indexes a task if it is an event. The task must already have its ID.
+     *
+     * @param task the task to index
+     */
+    void add(Task task) {
+        if (task instanceof Events) {
+            root = insert(root, new Node((Events) task, random.nextInt()));
+        }
+    }
+
+    /**
+     * Removes a task from the tree if it is an event. Must be called before its times change.
+     *
+     * @param task the task to remove
+     */
+    void remove(Task task) {
+        if (task instanceof Events) {
+            root = delete(root, (Events) task);
+        }
+    }
+
+    /**
+     * Finds the events that overlap a window of time.
+     * Subtrees whose latest end is not after the window starts are skipped entirely.
+     *
+     * @param from the start of the window
+     * @param to the end of the window, exclusive
+     * @return the overlapping events ordered by start time
+     */
+    List<Task> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<Task> matches = new ArrayList<>();
+        collect(root, from, to, matches);
+        return matches;
+    }
+
+    /**
+     * Adds the events of a subtree that overlap the window, in start order.
+     *
+     * @param node the root of the subtree
+     * @param from the start of the window
+     * @param to the end of the window, exclusive
+     * @param matches receives the overlapping events
+     */
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, List<Task> matches) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collect(node.left, from, to, matches);
+        if (node.event.getStart().isBefore(to)) {
+            if (node.event.getEnd().isAfter(from)) {
+                matches.add(node.event);
+            }
+            collect(node.right, from, to, matches);
+        }
+    }
+
+    /**
+     * Finds the earliest gaps between events in a window by sweeping the events in start order.
+     * Only events ending after the current gap begins are visited, and the sweep stops once enough gaps are found.
+     *
+     * @param from the start of the window
+     * @param to the end of the window, exclusive
+     * @param length the shortest gap to report
+     * @param limit the most gaps to report
+     * @return the gaps, earliest first
+     */
+    List<TimeSlot> gaps(LocalDateTime from, LocalDateTime to, Duration length, int limit) {
+        Sweep sweep = new Sweep(from, to, length, limit);
+        sweep(root, sweep);
+        if (sweep.slots.size() < limit) {
+            sweep.close(to);
+        }
+        return sweep.slots;
+    }
+
+    /**
+     * Feeds the events of a subtree that start before the window ends to the sweep, in start order.
+     *
+     * @param node the root of the subtree
+     * @param sweep the sweep in progress
+     * @return false once the sweep has found enough gaps or passed the end of the window
+     */
+    private static boolean sweep(Node node, Sweep sweep) {
+        if (node == null || !node.maxEnd.isAfter(sweep.cursor)) {
+            return true;
+        }
+        if (!sweep(node.left, sweep)) {
+            return false;
+        }
+        if (!node.event.getStart().isBefore(sweep.to)) {
+            return false;
+        }
+        return sweep.close(node.event.getStart()) && sweep.advance(node.event.getEnd()) && sweep(node.right, sweep);
+    }
+
+    /**
+     * Inserts a node into a subtree and rotates it up while its priority is higher than its parent's.
+     *
+     * @param node the root of the subtree
+     * @param fresh the node to insert
+     * @return the new root of the subtree
+     */
+    private static Node insert(Node node, Node fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (compare(fresh.event, node.event) < 0) {
+            node.left = insert(node.left, fresh);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, fresh);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Removes an event from a subtree by merging the children of its node.
+     *
+     * @param node the root of the subtree
+     * @param event the event to remove
+     * @return the new root of the subtree
+     */
+    private static Node delete(Node node, Events event) {
+        if (node == null) {
+            return null;
+        }
+        int order = compare(event, node.event);
+        if (order < 0) {
+            node.left = delete(node.left, event);
+        } else if (order > 0) {
+            node.right = delete(node.right, event);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Joins two subtrees where every event in the first sorts before every event in the second.
+     *
+     * @param first the subtree with the earlier events
+     * @param second the subtree with the later events
+     * @return the root of the joined tree
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            first.update();
+            return first;
+        }
+        second.left = merge(first, second.left);
+        second.update();
+        return second;
+    }
+
+    /**
+     * Lifts the left child of a node into its place.
+     *
+     * @param node the node to rotate down
+     * @return the new root of the subtree
+     */
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    /**
+     * Lifts the right child of a node into its place.
+     *
+     * @param node the node to rotate down
+     * @return the new root of the subtree
+     */
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    /**
+     * Orders events by start time, breaking ties by ID so that every event has a unique position.
+     *
+     * @param a the first event
+     * @param b the second event
+     * @return a negative number, zero or a positive number as a sorts before, with or after b
+     */
+    private static int compare(Events a, Events b) {
+        int order = a.getStart().compareTo(b.getStart());
+        return order != 0 ? order : Long.compare(a.getId(), b.getId());
+    }
+
+    /**
+     * A tree node holding one event and the latest end time below it.
+     */
+    private static class Node {
+        private final Events event;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        /**
+         * Creates a leaf node for an event.
+         *
+         * @param event the event to hold
+         * @param priority the random heap priority that keeps the tree balanced
+         */
+        private Node(Events event, int priority) {
+            this.event = event;
+            this.priority = priority;
+            this.maxEnd = event.getEnd();
+        }
+
+        /**
+         * Recomputes the latest end time from the event and both children.
+         */
+        private void update() {
+            maxEnd = event.getEnd();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+
+    /**
+     * The state of a free-slot sweep: where the current gap begins and the gaps found so far.
+     */
+    private static class Sweep {
+        private final LocalDateTime to;
+        private final Duration length;
+        private final int limit;
+        private final List<TimeSlot> slots = new ArrayList<>();
+        private LocalDateTime cursor;
+
+        /**
+         * Starts a sweep at the beginning of a window.
+         *
+         * @param from the start of the window
+         * @param to the end of the window, exclusive
+         * @param length the shortest gap to report
+         * @param limit the most gaps to report
+         */
+        private Sweep(LocalDateTime from, LocalDateTime to, Duration length, int limit) {
+            this.cursor = from;
+            this.to = to;
+            this.length = length;
+            this.limit = limit;
+        }
+
+        /**
+         * Ends the current gap, keeping it if it is long enough.
+         *
+         * @param end the time the gap ends
+         * @return false once enough gaps have been found
+         */
+        private boolean close(LocalDateTime end) {
+            if (cursor.plus(length).compareTo(end) <= 0 && cursor.isBefore(end)) {
+                slots.add(new TimeSlot(cursor, end));
+            }
+            return slots.size() < limit;
+        }
+
+        /**
+         * Moves the start of the next gap past the end of an event.
+         *
+         * @param end the end of the event
+         * @return false once the window is fully covered
+         */
+        private boolean advance(LocalDateTime end) {
+            if (end.isAfter(cursor)) {
+                cursor = end;
+            }
+            return cursor.isBefore(to);
+        }
+    }
+}
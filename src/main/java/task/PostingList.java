@@ -0,0 +1,82 @@
+package task;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * Growable list of task IDs stored as plain ints, for the posting lists of the search indexes.
+ * Tasks get increasing IDs in the order they are added, which is also their order in the task list, so
+ * appending keeps a list sorted and list order comes for free. Deleted tasks are not removed one by one;
+ * lookups skip IDs that no longer resolve and {@link #retainLive} sweeps them out in bulk.
+ */
+class PostingList {
+    private static final int INITIAL_CAPACITY = 2;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Appends a task ID, ignoring it if it is already the last one, as when a word repeats in a description.
+     *
+     * @param id the ID, greater than or equal to every ID already in the list
+     */
+    void add(long id) {
+        assert id > 0 && id <= Integer.MAX_VALUE : "task ID does not fit in a posting list!";
+        assert size == 0 || ids[size - 1] <= id : "task IDs must be added in increasing order!";
+        if (size > 0 && ids[size - 1] == id) {
+            return;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = (int) id;
+    }
+
+    /**
+     * Returns the number of IDs in the list, including those of deleted tasks not swept out yet.
+     *
+     * @return the number of IDs
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the ID at a position.
+     *
+     * @param index the zero-based position
+     * @return the task ID
+     */
+    long get(int index) {
+        assert index >= 0 && index < size : "posting index out of bounds!";
+        return ids[index];
+    }
+
+    /**
+     * Checks whether the list holds an ID, by binary search.
+     *
+     * @param id the task ID
+     * @return true if the ID is in the list
+     */
+    boolean contains(long id) {
+        return id <= Integer.MAX_VALUE && Arrays.binarySearch(ids, 0, size, (int) id) >= 0;
+    }
+
+    /**
+     * Drops the IDs of tasks that no longer exist and trims the spare capacity.
+     *
+     * @param lookup returns the task with an ID, or null if it was deleted
+     * @return the number of IDs left
+     */
+    int retainLive(LongFunction<Task> lookup) {
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if (lookup.apply(ids[i]) != null) {
+                ids[live++] = ids[i];
+            }
+        }
+        size = live;
+        ids = Arrays.copyOf(ids, Math.max(INITIAL_CAPACITY, live));
+        return live;
+    }
+}
@@ -3,6 +3,9 @@ package task;
 import exception.BugException;
 
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 /**
  * Abstract base class representing a task in the Bug application.
@@ -12,6 +15,7 @@ import java.time.Duration;
 public abstract class Task {
     protected String description;
     protected boolean isDone;
+    private long id = 0;
 
     /**
      * Creates a new task with the specified description.
@@ -42,6 +46,34 @@ public abstract class Task {
         return this.description;
     }
 
+    /**
+     * Returns the ID the task was given when it was last added to a task list.
+     * The ID stays the same while other tasks are added or deleted around it.
+     *
+     * @return the ID, or 0 if the task was never added to a list
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Records the ID given to the task by the list it is added to.
+     *
+     * @param id the new ID
+     */
+    void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns whether the task is completed.
+     *
+     * @return true if the task is marked as done
+     */
+    public boolean isDone() {
+        return isDone;
+    }
+
     /**
      * Marks the task as completed.
      */
@@ -68,11 +100,90 @@ public abstract class Task {
 
     /**
      * Returns the file storage representation of the task.
-     * Must be implemented by subclasses to define their storage format.
      *
      * @return pipe-separated string for file storage
      */
-    public abstract String toFileString();
+    public String toFileString() {
+        StringBuilder out = new StringBuilder();
+        appendFileString(out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the file storage representation of the task to a buffer, so that many tasks can be
+     * serialized through one reused builder. Must be implemented by subclasses to define their storage format.
+     *
+     * @param out the buffer to append the pipe-separated record to
+     */
+    public abstract void appendFileString(StringBuilder out);
+
+    /**
+     * Appends a date in the same ISO form as {@link LocalDate#toString()}.
+     *
+     * @param out the buffer to append to
+     * @param date the date to append
+     */
+    protected static void appendDate(StringBuilder out, LocalDate date) {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            out.append(date);
+            return;
+        }
+        appendDigits(out, year, 4);
+        out.append('-');
+        appendDigits(out, date.getMonthValue(), 2);
+        out.append('-');
+        appendDigits(out, date.getDayOfMonth(), 2);
+    }
+
+    /**
+     * Appends a date-time in the same ISO form as {@link LocalDateTime#toString()}.
+     *
+     * @param out the buffer to append to
+     * @param dateTime the date-time to append
+     */
+    protected static void appendDateTime(StringBuilder out, LocalDateTime dateTime) {
+        appendDate(out, dateTime.toLocalDate());
+        out.append('T');
+        LocalTime time = dateTime.toLocalTime();
+        appendDigits(out, time.getHour(), 2);
+        out.append(':');
+        appendDigits(out, time.getMinute(), 2);
+        if (time.getSecond() == 0 && time.getNano() == 0) {
+            return;
+        }
+        out.append(':');
+        appendDigits(out, time.getSecond(), 2);
+
+        int nano = time.getNano();
+        if (nano == 0) {
+            return;
+        }
+        out.append('.');
+        if (nano % 1_000_000 == 0) {
+            appendDigits(out, nano / 1_000_000, 3);
+        } else if (nano % 1000 == 0) {
+            appendDigits(out, nano / 1000, 6);
+        } else {
+            appendDigits(out, nano, 9);
+        }
+    }
+
+    /**
+     * Appends a non-negative number padded with leading zeros.
+     *
+     * @param out the buffer to append to
+     * @param value the number to append
+     * @param width the minimum number of digits
+     */
+    private static void appendDigits(StringBuilder out, int value, int width) {
+        for (int limit = 10, i = 1; i < width; i++, limit *= 10) {
+            if (value < limit) {
+                out.append('0');
+            }
+        }
+        out.append(value);
+    }
 
     /**
      * Snoozes the task by the specified duration.
@@ -1,22 +1,46 @@
 package task;
 
-import java.util.List;
+import exception.BugException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Manages a collection of tasks with operations for adding, removing, and searching.
- * Provides a wrapper around ArrayList with additional task-specific functionality.
+ * Every task gets an ID when it is added that stays the same while the tasks around it are deleted.
+ * Tasks live in append-only slots; deleting leaves a tombstone and a Fenwick tree over the occupied slots
+ * maps display positions to slots, so getting and deleting by position take logarithmic time and
+ * looking up by ID takes constant time. Tombstones are swept out whenever the slots are resized.
+ * Word and trigram indexes over task descriptions let searches skip non-matching tasks. Each is built on the
+ * first search that can use it and kept up to date from then on, so loading a list never pays for them.
+ * Descriptions never change after a task is created, so adding and deleting are the only updates they need.
+ * Deadlines are also indexed by due date and events by their time span in an interval tree;
+ * {@link #snooze(int, Duration)} keeps both up to date.
  */
-public class TaskList {
+public class TaskList implements Iterable<Task> {
+    private static final int MIN_CAPACITY = 16;
 
-    private final List<Task> tasks;
+    private final List<Task> slots = new ArrayList<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final FenwickTree occupied = new FenwickTree(MIN_CAPACITY);
+    private WordIndex wordIndex; // Null until the first whole-word search
+    private TrigramIndex trigramIndex; // Null until the first search long enough to use it
+    private final DeadlineIndex deadlineIndex = new DeadlineIndex();
+    private final IntervalTree eventIndex = new IntervalTree();
+    private int size = 0;
+    private long nextId = 1;
 
     /**
      * Creates a new empty task list.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
-        assert tasks != null : "task list should never be null after initialisation!";
     }
 
     /**
@@ -26,8 +50,9 @@ public class TaskList {
      */
     public TaskList(List<Task> init) {
         assert init != null : "initial task list cannot be null!";
-        this.tasks = new ArrayList<>(init);
-        assert tasks != null : "task list should never be null after initialisation!";
+        for (Task task : init) {
+            add(task);
+        }
     }
 
     /**
@@ -36,19 +61,33 @@ public class TaskList {
      * @return the current size of the task list
      */
     public int size() {
-        assert tasks != null : "task list should never be null!";
-        return tasks.size();
+        return size;
     }
 
     /**
-     * Adds a new task to the end of the list.
+     * Adds a new task to the end of the list and gives it a fresh ID.
      *
      * @param task the task to add
      */
     public void add(Task task) {
         assert task != null : "cannot add null task to tak list!";
-        assert tasks != null : "task list should never be null!";
-        tasks.add(task);
+        if (slots.size() == occupied.capacity()) {
+            resize(Math.max(MIN_CAPACITY, 2 * (size + 1)));
+        }
+        task.setId(nextId++);
+        int slot = slots.size();
+        slots.add(task);
+        slotsById.put(task.getId(), slot);
+        occupied.add(slot, 1);
+        size++;
+        if (wordIndex != null) {
+            wordIndex.add(task);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.add(task);
+        }
+        deadlineIndex.add(task);
+        eventIndex.add(task);
     }
 
     /**
@@ -58,10 +97,25 @@ public class TaskList {
      * @return the removed task
      */
     public Task delete(int index) {
-        assert tasks != null : "task list should never be null!";
         assert index >= 0 : "index cannot be negative!";
-        assert index < tasks.size() : "index must be within task lost bounds!";
-        return tasks.remove(index);
+        assert index < size : "index must be within task lost bounds!";
+        int slot = occupied.findKth(index);
+        Task removed = slots.set(slot, null);
+        slotsById.remove(removed.getId());
+        occupied.add(slot, -1);
+        size--;
+        if (wordIndex != null) {
+            wordIndex.remove(removed);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.remove(removed);
+        }
+        deadlineIndex.remove(removed);
+        eventIndex.remove(removed);
+        if (slots.size() > MIN_CAPACITY && size * 4 < slots.size()) {
+            resize(Math.max(MIN_CAPACITY, 2 * size));
+        }
+        return removed;
     }
 
     /**
@@ -71,10 +125,79 @@ public class TaskList {
      * @return the task at the specified index
      */
     public Task get(int index) {
-        assert tasks != null : "task list should never be null!";
         assert index >= 0 : "index cannot be negative!";
-        assert index < tasks.size() : "index must be within task list bounds!";
-        return tasks.get(index);
+        assert index < size : "index must be within task list bounds!";
+        return slots.get(occupied.findKth(index));
+    }
+
+    /**
+     * Snoozes the task at the specified index, moving it in the date indexes.
+     *
+     * @param index the zero-based index of the task to snooze
+     * @param duration the time period to postpone the task by
+     * @return the snoozed task
+     * @throws BugException if the task type doesn't support snoozing
+     */
+    public Task snooze(int index, Duration duration) throws BugException {
+        Task task = get(index);
+        deadlineIndex.remove(task);
+        eventIndex.remove(task);
+        try {
+            task.snooze(duration);
+        } finally {
+            deadlineIndex.add(task);
+            eventIndex.add(task);
+        }
+        return task;
+    }
+
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id the ID the task was given when it was added
+     * @return the task, or null if no task in the list has that ID
+     */
+    public Task getById(long id) {
+        Integer slot = slotsById.get(id);
+        return slot == null ? null : slots.get(slot);
+    }
+
+    /**
+     * Returns the current position of the task with the given ID.
+     *
+     * @param id the ID the task was given when it was added
+     * @return the zero-based index of the task, or -1 if no task in the list has that ID
+     */
+    public int indexOfId(long id) {
+        Integer slot = slotsById.get(id);
+        return slot == null ? -1 : occupied.countBefore(slot);
+    }
+
+    /**
+     * Returns an iterator over the tasks in list order.
+     *
+     * @return an iterator that skips deleted slots
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int slot = nextOccupied(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < slots.size();
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Task task = slots.get(slot);
+                slot = nextOccupied(slot + 1);
+                return task;
+            }
+        };
     }
 
     /**
@@ -85,15 +208,173 @@ public class TaskList {
      * @return list of tasks containing the keyword (may be empty)
      */
     public ArrayList<Task> findTasks(String keyword) {
+        return findTasks(keyword, false);
+    }
+
+    /**
+     * Finds all tasks whose descriptions contain the specified keyword, optionally ignoring case.
+     * Keywords of three or more characters are looked up in the trigram index, which the first such search
+     * builds; shorter ones scan the list.
+     *
+     * @param keyword the text to search for in task descriptions
+     * @param isIgnoreCase whether upper and lower case letters match each other
+     * @return list of tasks containing the keyword in list order (may be empty)
+     */
+    public ArrayList<Task> findTasks(String keyword, boolean isIgnoreCase) {
         assert keyword != null : "search keyword cannot be null!";
-        assert tasks != null : "task list should never be null!";
+        if (keyword.length() >= TrigramIndex.MIN_KEYWORD_LENGTH) {
+            return new ArrayList<>(getTrigramIndex().find(keyword, isIgnoreCase));
+        }
+
         ArrayList<Task> matches = new ArrayList<>();
-        for (Task t : tasks) {
-            assert t != null : "task in list should never be null!";
-            if (t.getDescription().contains(keyword)) {
+        for (Task t : this) {
+            String description = t.getDescription();
+            if (isIgnoreCase ? CaseFolding.containsIgnoreCase(description, keyword) : description.contains(keyword)) {
                 matches.add(t);
             }
         }
         return matches;
     }
+
+    /**
+     * Finds all tasks whose descriptions contain every word of the query as a whole word.
+     * Words are separated by whitespace and matched case-sensitively, so "book" does not match "notebook".
+     * Once the word index is built by the first such search, runs in time proportional to the matches rather
+     * than the size of the list.
+     *
+     * @param words one or more whitespace-separated words
+     * @return list of matching tasks in list order (may be empty)
+     */
+    public ArrayList<Task> findWholeWords(String words) {
+        return findWholeWords(words, false);
+    }
+
+    /**
+     * Finds all tasks whose descriptions contain every word of the query as a whole word, optionally ignoring case.
+     *
+     * @param words one or more whitespace-separated words
+     * @param isIgnoreCase whether upper and lower case letters match each other
+     * @return list of matching tasks in list order (may be empty)
+     */
+    public ArrayList<Task> findWholeWords(String words, boolean isIgnoreCase) {
+        assert words != null : "search words cannot be null!";
+        return new ArrayList<>(getWordIndex().find(words, isIgnoreCase));
+    }
+
+    /**
+     * Finds the deadlines due within a window of days, using the due date index.
+     * Runs in O(log n + k) for k matches.
+     *
+     * @param from the first day of the window
+     * @param to the last day of the window, inclusive
+     * @return the deadlines in the window, earliest first (may be empty)
+     */
+    public ArrayList<Task> findDueBetween(LocalDate from, LocalDate to) {
+        assert from != null && to != null : "due window cannot be open-ended!";
+        return new ArrayList<>(deadlineIndex.between(from, to));
+    }
+
+    /**
+     * Finds the events taking place at a moment, using the interval tree.
+     * An event takes place from its start up to, but not including, its end.
+     *
+     * @param time the moment to look up
+     * @return the events in progress at that time, ordered by start (may be empty)
+     */
+    public ArrayList<Task> findEventsAt(LocalDateTime time) {
+        return new ArrayList<>(eventIndex.overlapping(time, time.plusNanos(1)));
+    }
+
+    /**
+     * Finds the events overlapping a window of time, using the interval tree.
+     * Events that end exactly when the window starts, or start exactly when it ends, do not overlap it.
+     * Runs in O(log n + k) for k matches.
+     *
+     * @param from the start of the window
+     * @param to the end of the window
+     * @return the overlapping events ordered by start (may be empty)
+     */
+    public ArrayList<Task> findEventsOverlapping(LocalDateTime from, LocalDateTime to) {
+        assert from != null && to != null : "event window cannot be open-ended!";
+        return new ArrayList<>(eventIndex.overlapping(from, to));
+    }
+
+    /**
+     * Finds the earliest gaps of at least a given length between the events in a window.
+     * Sweeps the interval tree in start order, so it only visits the events that can bound a gap.
+     *
+     * @param from the start of the window
+     * @param to the end of the window
+     * @param length the shortest gap to report
+     * @param limit the most gaps to report
+     * @return the free slots, earliest first (may be empty)
+     */
+    public ArrayList<TimeSlot> findFreeSlots(LocalDateTime from, LocalDateTime to, Duration length, int limit) {
+        assert from != null && to != null : "free slot window cannot be open-ended!";
+        assert !length.isNegative() && !length.isZero() : "free slot length must be positive!";
+        return new ArrayList<>(eventIndex.gaps(from, to, length, limit));
+    }
+
+    /**
+     * Returns the word index, building it from the current tasks the first time it is needed.
+     *
+     * @return the word index
+     */
+    private WordIndex getWordIndex() {
+        if (wordIndex == null) {
+            wordIndex = new WordIndex(this::getById);
+            for (Task task : this) {
+                wordIndex.add(task);
+            }
+        }
+        return wordIndex;
+    }
+
+    /**
+     * Returns the trigram index, building it from the current tasks the first time it is needed.
+     *
+     * @return the trigram index
+     */
+    private TrigramIndex getTrigramIndex() {
+        if (trigramIndex == null) {
+            trigramIndex = new TrigramIndex(this::getById);
+            for (Task task : this) {
+                trigramIndex.add(task);
+            }
+        }
+        return trigramIndex;
+    }
+
+    /**
+     * Finds the first occupied slot at or after the given one.
+     *
+     * @param slot the slot to start from
+     * @return the occupied slot, or the number of slots if there is none
+     */
+    private int nextOccupied(int slot) {
+        while (slot < slots.size() && slots.get(slot) == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    /**
+     * Sweeps out the tombstones and rebuilds the position tree for a new number of slots.
+     * IDs are unaffected; only the slots they point to move.
+     *
+     * @param capacity the new number of slots, at least the number of tasks
+     */
+    private void resize(int capacity) {
+        int live = 0;
+        for (int slot = 0; slot < slots.size(); slot++) {
+            Task task = slots.get(slot);
+            if (task != null) {
+                slots.set(live, task);
+                slotsById.put(task.getId(), live);
+                live++;
+            }
+        }
+        slots.subList(live, slots.size()).clear();
+        occupied.reset(capacity, live);
+    }
 }
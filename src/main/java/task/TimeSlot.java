@@ -0,0 +1,54 @@
+package task;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Represents a stretch of time with no events in it.
+ */
+public class TimeSlot {
+    private static final DateTimeFormatter PRETTY = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm");
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    /**
+     * Creates a new time slot.
+     *
+     * @param start the start of the slot
+     * @param end the end of the slot, exclusive
+     */
+    public TimeSlot(LocalDateTime start, LocalDateTime end) {
+        assert start.isBefore(end) : "time slot cannot be empty!";
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the start of the slot.
+     *
+     * @return the start time
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the end of the slot.
+     *
+     * @return the end time, exclusive
+     */
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns a formatted string representation of the slot.
+     *
+     * @return string showing the formatted time range
+     */
+    @Override
+    public String toString() {
+        return start.format(PRETTY) + " to " + end.format(PRETTY);
+    }
+}
@@ -27,13 +27,12 @@ public class ToDos extends Task {
     }
 
     /**
-     * Returns the file storage format for this todo task.
+     * Appends the file storage format for this todo task.
      *
-     * @return pipe-separated string: "T | status | description"
+     * @param out the buffer to append "T | status | description" to
      */
     @Override
-    public String toFileString() {
-        int status = isDone ? 1 : 0;
-        return "T | " + status + " | " + getDescription();
+    public void appendFileString(StringBuilder out) {
+        out.append("T | ").append(isDone ? '1' : '0').append(" | ").append(description);
     }
 }
@@ -0,0 +1,194 @@
+package task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Index from every three-character sequence of the case-folded task descriptions to the tasks containing it.
+ * A description can only contain a keyword if it contains all of the keyword's trigrams, so substring
+ * searches only need to check the tasks in the keyword's rarest trigram.
+ * Trigrams are packed into longs and kept in an open-addressing table of {@link PostingList}s, so indexing
+ * a task allocates nothing beyond the growth of its posting lists. Deleting a task only counts it; its IDs
+ * are skipped by lookups and swept out once deleted tasks outnumber the live ones.
+ */
+class TrigramIndex {
+    /** Keywords shorter than this have no trigrams and must be answered by scanning. */
+    static final int MIN_KEYWORD_LENGTH = 3;
+
+    private static final int INITIAL_TABLE_SIZE = 1024;
+
+    private final LongFunction<Task> lookup;
+    private long[] keys = new long[INITIAL_TABLE_SIZE]; // Trigram plus one, so that 0 marks an empty slot
+    private PostingList[] lists = new PostingList[INITIAL_TABLE_SIZE];
+    private int trigramCount = 0;
+    private int taskCount = 0;
+    private int removedCount = 0;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param lookup returns the task with an ID, or null if it has been deleted
+     */
+    TrigramIndex(LongFunction<Task> lookup) {
+        this.lookup = lookup;
+    }
+
+    /**
+     * Adds every trigram of a task's description to the index.
+     * Tasks must be added in the order of their IDs.
+     *
+     * @param task the task that was added to the list
+     */
+    void add(Task task) {
+        String text = CaseFolding.fold(task.getDescription());
+        for (int i = 0; i + MIN_KEYWORD_LENGTH <= text.length(); i++) {
+            getList(trigramAt(text, i), true).add(task.getId());
+        }
+        taskCount++;
+    }
+
+    /**
+     * Records that a task was removed from the list.
+     * Its IDs stay in the posting lists until deleted tasks outnumber the live ones, then all are swept out.
+     *
+     * @param task the task that was removed from the list
+     */
+    void remove(Task task) {
+        assert lookup.apply(task.getId()) == null : "task must be deleted before it is removed from the index!";
+        taskCount--;
+        removedCount++;
+        if (removedCount > taskCount) {
+            sweep();
+        }
+    }
+
+    /**
+     * Finds the tasks whose descriptions contain a keyword.
+     * Candidates come from the keyword's shortest posting list and are verified against the description.
+     *
+     * @param keyword the text to search for, at least {@link #MIN_KEYWORD_LENGTH} characters long
+     * @param isIgnoreCase whether upper and lower case letters match each other
+     * @return the matching tasks in list order
+     */
+    List<Task> find(String keyword, boolean isIgnoreCase) {
+        assert keyword.length() >= MIN_KEYWORD_LENGTH : "keyword too short for the trigram index!";
+        String folded = CaseFolding.fold(keyword);
+        PostingList shortest = null;
+        for (int i = 0; i + MIN_KEYWORD_LENGTH <= folded.length(); i++) {
+            PostingList list = getList(trigramAt(folded, i), false);
+            if (list == null) {
+                return new ArrayList<>();
+            }
+            if (shortest == null || list.size() < shortest.size()) {
+                shortest = list;
+            }
+        }
+
+        List<Task> matches = new ArrayList<>();
+        for (int i = 0; i < shortest.size(); i++) {
+            Task task = lookup.apply(shortest.get(i));
+            if (task == null) {
+                continue; // Deleted since it was indexed
+            }
+            String description = task.getDescription();
+            if (isIgnoreCase ? CaseFolding.containsIgnoreCase(description, keyword) : description.contains(keyword)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Packs the three characters of already folded text starting at a position into a long.
+     *
+     * @param text the folded text
+     * @param i the position of the first character
+     * @return the trigram
+     */
+    private static long trigramAt(String text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+
+    /**
+     * Finds the posting list of a trigram by linear probing.
+     *
+     * @param trigram the trigram
+     * @param isCreating whether to add an empty list if the trigram is not in the table yet
+     * @return the posting list, or null if there is none and none was created
+     */
+    private PostingList getList(long trigram, boolean isCreating) {
+        if (isCreating && (trigramCount + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        long key = trigram + 1;
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return lists[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (!isCreating) {
+            return null;
+        }
+        keys[slot] = key;
+        lists[slot] = new PostingList();
+        trigramCount++;
+        return lists[slot];
+    }
+
+    /**
+     * Drops the IDs of deleted tasks from every posting list, and the lists left empty, from the table.
+     */
+    private void sweep() {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0 && lists[slot].retainLive(lookup) == 0) {
+                lists[slot] = null;
+                trigramCount--;
+            }
+        }
+        removedCount = 0;
+        int size = INITIAL_TABLE_SIZE;
+        while (trigramCount * 2 > size) {
+            size *= 2;
+        }
+        rehash(size);
+    }
+
+    /**
+     * Moves every posting list into a table of a new size, leaving out the slots whose list was dropped.
+     *
+     * @param size the new number of slots, a power of two with room for every trigram
+     */
+    private void rehash(int size) {
+        long[] oldKeys = keys;
+        PostingList[] oldLists = lists;
+        keys = new long[size];
+        lists = new PostingList[size];
+        int mask = size - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0 || oldLists[i] == null) {
+                continue;
+            }
+            int slot = hash(oldKeys[i]) & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            lists[slot] = oldLists[i];
+        }
+    }
+
+    /**
+     * Spreads the bits of a packed trigram so that neighbouring trigrams land in different slots.
+     *
+     * @param key the packed trigram plus one
+     * @return the hash
+     */
+    private static int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
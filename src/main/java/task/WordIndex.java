@@ -0,0 +1,143 @@
+package task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * Inverted index from the whitespace-separated words of task descriptions to the tasks that contain them.
+ * Words are case-folded before indexing; case-sensitive searches verify the exact words of each candidate.
+ * Each word maps to a {@link PostingList} of task IDs in the order they were added, which is also their order
+ * in the task list, so lookups never have to sort or touch tasks that don't match. Deleting a task only
+ * counts it; its IDs are skipped by lookups and swept out once deleted tasks outnumber the live ones.
+ */
+class WordIndex {
+    private final LongFunction<Task> lookup;
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private int taskCount = 0;
+    private int removedCount = 0;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param lookup returns the task with an ID, or null if it has been deleted
+     */
+    WordIndex(LongFunction<Task> lookup) {
+        this.lookup = lookup;
+    }
+
+    /**
+     * Adds every word of a task's description to the index.
+     * Tasks must be added in the order of their IDs.
+     *
+     * @param task the task that was added to the list
+     */
+    void add(Task task) {
+        String text = CaseFolding.fold(task.getDescription());
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isSpace = i == text.length() || Character.isWhitespace(text.charAt(i));
+            if (isSpace && start >= 0) {
+                postings.computeIfAbsent(text.substring(start, i), w -> new PostingList()).add(task.getId());
+                start = -1;
+            } else if (!isSpace && start < 0) {
+                start = i;
+            }
+        }
+        taskCount++;
+    }
+
+    /**
+     * Records that a task was removed from the list.
+     * Its IDs stay in the posting lists until deleted tasks outnumber the live ones, then all are swept out.
+     *
+     * @param task the task that was removed from the list
+     */
+    void remove(Task task) {
+        assert lookup.apply(task.getId()) == null : "task must be deleted before it is removed from the index!";
+        taskCount--;
+        removedCount++;
+        if (removedCount > taskCount) {
+            sweep();
+        }
+    }
+
+    /**
+     * Finds the tasks whose descriptions contain every given word as a whole word.
+     * Only the shortest posting list is walked; the others are probed by binary search.
+     *
+     * @param query one or more whitespace-separated words
+     * @param isIgnoreCase whether upper and lower case letters match each other
+     * @return the matching tasks in list order
+     */
+    List<Task> find(String query, boolean isIgnoreCase) {
+        Set<String> queryWords = words(query);
+        List<PostingList> lists = new ArrayList<>();
+        for (String word : words(CaseFolding.fold(query))) {
+            PostingList list = postings.get(word);
+            if (list == null) {
+                return new ArrayList<>();
+            }
+            lists.add(list);
+        }
+
+        List<Task> matches = new ArrayList<>();
+        if (lists.isEmpty()) {
+            return matches;
+        }
+        PostingList shortest = lists.get(0);
+        for (PostingList list : lists) {
+            if (list.size() < shortest.size()) {
+                shortest = list;
+            }
+        }
+        for (int i = 0; i < shortest.size(); i++) {
+            long id = shortest.get(i);
+            Task task = lookup.apply(id);
+            if (task != null && lists.stream().allMatch(list -> list.contains(id))
+                    && (isIgnoreCase || words(task.getDescription()).containsAll(queryWords))) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Drops the IDs of deleted tasks from every posting list, and the words left without tasks.
+     */
+    private void sweep() {
+        Iterator<PostingList> lists = postings.values().iterator();
+        while (lists.hasNext()) {
+            if (lists.next().retainLive(lookup) == 0) {
+                lists.remove();
+            }
+        }
+        removedCount = 0;
+    }
+
+    /**
+     * Splits text into distinct whitespace-separated words.
+     *
+     * @param text the text to split
+     * @return the distinct words, in order of first appearance
+     */
+    private static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isSpace = i == text.length() || Character.isWhitespace(text.charAt(i));
+            if (isSpace && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            } else if (!isSpace && start < 0) {
+                start = i;
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,132 @@
+package ui;
+
+/**
+ * Splits a command line into its instruction and its contents in a single pass, without regular expressions.
+ * Runs of whitespace are collapsed into single spaces and the ends are trimmed, so the contents can be cut
+ * at flags such as "/by" with plain index scans. A line that is already tidy is never copied.
+ */
+final class Lexer {
+    private final String line;
+    private final int instructionEnd;
+    private final boolean isWord;
+
+    /**
+     * Tokenises a command line.
+     *
+     * @param input the raw user input, which must not be blank
+     */
+    Lexer(String input) {
+        line = normalize(input);
+        assert !line.isEmpty() : "blank input should be rejected before lexing!";
+
+        int end = 0;
+        boolean isLetters = true;
+        while (end < line.length() && line.charAt(end) != ' ') {
+            char c = line.charAt(end);
+            isLetters &= (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+            end++;
+        }
+        instructionEnd = end;
+        isWord = isLetters;
+    }
+
+    /**
+     * Returns whether the instruction consists of ASCII letters only.
+     *
+     * @return true if the instruction can name a command
+     */
+    boolean isWord() {
+        return isWord;
+    }
+
+    /**
+     * Returns the instruction in lower case.
+     *
+     * @return the first word of the line, lower-cased
+     */
+    String getInstruction() {
+        for (int i = 0; i < instructionEnd; i++) {
+            char c = line.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return line.substring(0, instructionEnd).toLowerCase();
+            }
+        }
+        return line.substring(0, instructionEnd);
+    }
+
+    /**
+     * Returns everything after the instruction.
+     *
+     * @return the normalized contents, or an empty string if there are none
+     */
+    String getContents() {
+        return instructionEnd < line.length() ? line.substring(instructionEnd + 1) : "";
+    }
+
+    /**
+     * Checks whether a character is whitespace, using the same set as the regular expression class \s.
+     *
+     * @param c the character to check
+     * @return true for space, tab, line feed, vertical tab, form feed and carriage return
+     */
+    static boolean isSpace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    /**
+     * Returns the trimmed text between two indices, allocating only the final string.
+     *
+     * @param text normalized text
+     * @param from the start index, inclusive
+     * @param to the end index, exclusive
+     * @return the text in between without leading or trailing spaces
+     */
+    static String slice(String text, int from, int to) {
+        while (from < to && text.charAt(from) == ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) == ' ') {
+            to--;
+        }
+        return text.substring(from, to);
+    }
+
+    /**
+     * Trims the input and collapses every run of whitespace into a single space.
+     * Scans the input once to find out whether anything needs to change, and returns it as is if not.
+     *
+     * @param input the raw input
+     * @return the normalized line
+     */
+    private static String normalize(String input) {
+        int start = 0;
+        int end = input.length();
+        while (start < end && isSpace(input.charAt(start))) {
+            start++;
+        }
+        while (end > start && isSpace(input.charAt(end - 1))) {
+            end--;
+        }
+
+        boolean isTidy = true;
+        for (int i = start; i < end && isTidy; i++) {
+            char c = input.charAt(i);
+            isTidy = !isSpace(c) || (c == ' ' && !isSpace(input.charAt(i + 1)));
+        }
+        if (isTidy) {
+            return start == 0 && end == input.length() ? input : input.substring(start, end);
+        }
+
+        char[] out = new char[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (!isSpace(c)) {
+                out[length++] = c;
+            } else if (out[length - 1] != ' ') {
+                out[length++] = ' ';
+            }
+        }
+        return new String(out, 0, length);
+    }
+}
@@ -2,10 +2,16 @@ package ui;
 
 import command.*;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Parses user input strings and converts them into executable Command objects.
  * Handles input validation, normalization, and command type determination.
  * Implements robust parsing with comprehensive error handling and validation.
+ * Input is tokenised by {@link Lexer} and flags are located with index scans, so no regular expressions
+ * are compiled or run per command.
  */
 public class Parser {
 
@@ -20,23 +26,20 @@ public class Parser {
             return new UnknownCommand("Input cannot be empty!");
         }
 
-        // Normalize multiple spaces to single spaces
-        String normalizedInput = input.trim().replaceAll("\\s+", " ");
+        // Normalize multiple spaces to single spaces and split off the instruction
+        Lexer lexer = new Lexer(input);
 
-        String[] split = normalizedInput.split(" ", 2);
-        assert split.length >= 1 : "split should always have at least one element!";
+        // Handle special characters in instruction
+        if (!lexer.isWord()) {
+            return new UnknownCommand("Commands can only contain letters!");
+        }
 
-        String instruction = split[0].toLowerCase();
+        String instruction = lexer.getInstruction();
         assert instruction != null : "instruction should not be null!";
 
-        String contents = ((split.length > 1) ? split[1] : "").trim();
+        String contents = lexer.getContents();
         assert contents != null : "contents should not be null (can be empty)";
 
-        // Handle special characters in instruction
-        if (!instruction.matches("[a-zA-Z]+")) {
-            return new UnknownCommand("Commands can only contain letters!");
-        }
-
         switch (instruction) {
             case "find": {
                 return parseFind(contents);
@@ -47,9 +50,24 @@ public class Parser {
             case "list": {
                 return parseList(contents);
             }
+            case "stats": {
+                return parseStats(contents);
+            }
+            case "export": {
+                return parseExport(contents);
+            }
             case "snooze": {
                 return parseSnoozeCommand(contents);
             }
+            case "due": {
+                return parseDue(contents);
+            }
+            case "busy": {
+                return parseBusy(contents);
+            }
+            case "freeslot": {
+                return parseFreeSlot(contents);
+            }
             case "todo": {
                 return parseTodo(contents);
             }
@@ -71,8 +89,9 @@ public class Parser {
 
     /**
      * Parses the find command with keyword validation.
+     * Leading flags select whole-word matches ("/w") and case-insensitive matches ("/i"), in any order.
      *
-     * @param contents the search keyword
+     * @param contents the search keyword, optionally preceded by "/w" and "/i"
      * @return FindCommand or UnknownCommand if invalid
      */
     private static Command parseFind(String contents) {
@@ -80,7 +99,24 @@ public class Parser {
             return new UnknownCommand("Find command requires a search keyword!");
         }
 
-        return new FindCommand(contents);
+        boolean isWholeWord = false;
+        boolean isIgnoreCase = false;
+        String keyword = contents;
+        while (true) {
+            if (keyword.equals("/w") || keyword.startsWith("/w ")) {
+                isWholeWord = true;
+            } else if (keyword.equals("/i") || keyword.startsWith("/i ")) {
+                isIgnoreCase = true;
+            } else {
+                break;
+            }
+            keyword = keyword.substring(2).trim();
+        }
+
+        if (keyword.isEmpty()) {
+            return new UnknownCommand("Find command requires a search keyword after its flags!");
+        }
+        return new FindCommand(keyword, isWholeWord, isIgnoreCase);
     }
 
     /**
@@ -109,6 +145,114 @@ public class Parser {
         return new ListCommand();
     }
 
+    /**
+     * Parses the export command with file name validation.
+     *
+     * @param contents the file to export the tasks to
+     * @return ExportCommand or UnknownCommand if no file is given
+     */
+    private static Command parseExport(String contents) {
+        if (contents.isEmpty()) {
+            return new UnknownCommand("Export command requires a file name!");
+        }
+        return new ExportCommand(contents);
+    }
+
+    /**
+     * Parses the stats command (should have no parameters).
+     *
+     * @param contents should be empty for valid stats command
+     * @return StatsCommand or UnknownCommand if parameters provided
+     */
+    private static Command parseStats(String contents) {
+        if (!contents.isEmpty()) {
+            return new UnknownCommand("Stats command should not have any parameters!");
+        }
+        return new StatsCommand();
+    }
+
+    /**
+     * Parses the due command, either "next" with a duration such as "7d", "2w" or "36h", or an explicit
+     * "from to" pair of dates.
+     *
+     * @param contents the window to look up, e.g. "next 7d" or "2025-01-01 2025-01-31"
+     * @return DueCommand or UnknownCommand if the window is malformed
+     */
+    private static Command parseDue(String contents) {
+        int space = contents.indexOf(' ');
+        if (space < 0 || contents.indexOf(' ', space + 1) >= 0) {
+            return new UnknownCommand("Due format: due <from> <to> or due next <duration>");
+        }
+
+        String first = contents.substring(0, space);
+        String second = contents.substring(space + 1);
+        if (!first.equals("next")) {
+            return new DueCommand(first, second);
+        }
+        Duration window = DurationParser.parse(second);
+        if (window == null) {
+            return new UnknownCommand("Due window must be a duration, e.g. due next 7d, 2w or 36h");
+        }
+        return new DueCommand(window);
+    }
+
+    /**
+     * Parses the busy command, either a single moment or a window separated by /to.
+     *
+     * @param contents e.g. "2025-10-20 1400" or "2025-10-20 1400 /to 2025-10-20 1800"
+     * @return BusyCommand or UnknownCommand if a time is missing
+     */
+    private static Command parseBusy(String contents) {
+        if (contents.isEmpty()) {
+            return new UnknownCommand("Busy format: busy <time> or busy <start> /to <end>");
+        }
+
+        int toFlag = contents.indexOf("/to");
+        String from = Lexer.slice(contents, 0, toFlag < 0 ? contents.length() : toFlag);
+        if (from.isEmpty()) {
+            return new UnknownCommand("Busy command missing the start time!");
+        }
+        if (toFlag < 0) {
+            return new BusyCommand(from, null);
+        }
+
+        String to = Lexer.slice(contents, toFlag + 3, contents.length());
+        if (to.isEmpty()) {
+            return new UnknownCommand("Busy command missing the end time after '/to'!");
+        }
+        return new BusyCommand(from, to);
+    }
+
+    /**
+     * Parses the freeslot command with its duration and /between and /and window.
+     *
+     * @param contents e.g. "2h /between 2025-10-20 0900 /and 2025-10-20 1800"
+     * @return FreeSlotCommand or UnknownCommand if a part is missing
+     */
+    private static Command parseFreeSlot(String contents) {
+        int betweenFlag = contents.indexOf("/between");
+        if (betweenFlag < 0) {
+            return new UnknownCommand("Freeslot format: freeslot <duration> /between <start> /and <end>");
+        }
+
+        String duration = Lexer.slice(contents, 0, betweenFlag);
+        if (duration.isEmpty()) {
+            return new UnknownCommand("Freeslot command missing the duration!");
+        }
+
+        int andFlag = contents.indexOf("/and", betweenFlag + 8);
+        if (andFlag < 0) {
+            return new UnknownCommand("Freeslot command missing '/and'!");
+        }
+
+        String from = Lexer.slice(contents, betweenFlag + 8, andFlag);
+        String to = Lexer.slice(contents, andFlag + 4, contents.length());
+        if (from.isEmpty() || to.isEmpty()) {
+            return new UnknownCommand("Freeslot times cannot be empty!");
+        }
+        return new FreeSlotCommand(duration, from, to);
+    }
+
     /**
      * Parses the snooze command with index and duration validation.
      *
@@ -120,20 +264,27 @@ public class Parser {
             return new UnknownCommand("Snooze command requires index and duration!");
         }
 
-        String[] parts = contents.split("\\s+", 2);
-        if (parts.length < 2) {
+        if (isBulkSelector(contents)) {
+            int lastSpace = contents.lastIndexOf(' ');
+            if (lastSpace < 0) {
+                return new UnknownCommand("Snooze format: snooze <indices> <duration>");
+            }
+            return parseBatchCommand("snooze", contents.substring(0, lastSpace), contents.substring(lastSpace + 1));
+        }
+
+        int space = contents.indexOf(' ');
+        if (space < 0) {
             return new UnknownCommand("Snooze format: snooze <index> <duration>");
         }
 
         try {
-            int index = Integer.parseInt(parts[0]) - 1;
-            assert index >= -1 : "parsed index should be valid (note: -1 will be caught by commands)";
-
+            int index = Integer.parseInt(contents, 0, space, 10) - 1;
             if (index <= -1) {
                 return new UnknownCommand("Task index must be positive!");
             }
+            assert index >= 0 : "parsed index should be valid";
 
-            String duration = parts[1];
+            String duration = contents.substring(space + 1);
             return new SnoozeCommand(index, duration);
         } catch (NumberFormatException e) {
             return new UnknownCommand("Task index must be a number!");
@@ -154,12 +305,6 @@ public class Parser {
         return new TodoCommand(contents);
     }
 
-    /**
-     * Parses the deadline command with description and date validation.
-     *
-     * @param contents should contain description and date separated by /by
-     * @return DeadlineCommand or UnknownCommand if format is invalid
-     */
     /**
      * Parses the deadline command with description and date validation.
      *
@@ -185,18 +330,17 @@ public class Parser {
      * @return DeadlineCommand or UnknownCommand if validation fails
      */
     private static Command createDeadlineFromParts(String contents) {
-        String[] parts = contents.split("/", 2);
-        String description = parts[0].trim();
+        int byFlag = contents.indexOf("/by");
+        String description = Lexer.slice(contents, 0, byFlag);
 
         if (description.isEmpty()) {
             return new UnknownCommand("Deadline description cannot be empty!");
         }
 
-        if (parts.length < 2 || parts[1].trim().isEmpty()) {
+        String dateStr = Lexer.slice(contents, byFlag + 3, contents.length());
+        if (dateStr.isEmpty()) {
             return new UnknownCommand("Deadline command missing date after '/by'!");
         }
-
-        String dateStr = parts[1].trim().split("\\s+", 2)[1];
         return new DeadlineCommand(description, dateStr);
     }
 
@@ -249,20 +393,20 @@ public class Parser {
      * @return EventCommand or UnknownCommand if validation fails
      */
     private static Command createEventFromParts(String contents) {
-        String[] fromParts = contents.split("/from", 2);
-        String description = fromParts[0].trim();
+        int fromFlag = contents.indexOf("/from");
+        String description = Lexer.slice(contents, 0, fromFlag);
 
         if (description.isEmpty()) {
             return new UnknownCommand("Event description cannot be empty!");
         }
 
-        String[] toParts = fromParts[1].split("/to", 2);
-        if (toParts.length < 2) {
+        int toFlag = contents.indexOf("/to", fromFlag + 5);
+        if (toFlag < 0) {
             return new UnknownCommand("Event command missing '/to'!");
         }
 
-        String startStr = toParts[0].trim();
-        String endStr = toParts[1].trim();
+        String startStr = Lexer.slice(contents, fromFlag + 5, toFlag);
+        String endStr = Lexer.slice(contents, toFlag + 3, contents.length());
 
         if (startStr.isEmpty() || endStr.isEmpty()) {
             return new UnknownCommand("Event times cannot be empty!");
@@ -274,9 +418,10 @@ public class Parser {
 
     /**
      * Parses index-based commands (mark, unmark, delete) with index validation.
+     * Ranges, lists and filters are handed on to {@link #parseBatchCommand(String, String)}.
      *
      * @param instruction the command type (mark, unmark, or delete)
-     * @param contents should contain a single positive integer
+     * @param contents a single positive integer, or a bulk selector such as "1-500", "3,7,9" or "/done"
      * @return appropriate Command or UnknownCommand if index is invalid
      */
     private static Command parseIndexCommand(String instruction, String contents) {
@@ -284,17 +429,20 @@ public class Parser {
             return new UnknownCommand(instruction + " command requires a task index!");
         }
 
+        if (isBulkSelector(contents)) {
+            return parseBatchCommand(instruction, contents);
+        }
+
         if (contents.contains(" ")) {
             return new UnknownCommand(instruction + " command should only have one parameter (task index)!");
         }
 
         try {
             int index = Integer.parseInt(contents) - 1;
-            assert index >= -1 : "parsed index should be valid";
-
             if (index <= -1) {
                 return new UnknownCommand("Task index must be a positive number!");
             }
+            assert index >= 0 : "parsed index should be valid";
 
             switch (instruction) {
                 case "mark":
@@ -310,6 +458,102 @@ public class Parser {
             return new UnknownCommand("Task index must be a valid number, not '" + contents + "'!");
         }
     }
-}
 
+    /**
+     * Checks whether the arguments of an index command select several tasks rather than one.
+     *
+     * @param contents the command arguments
+     * @return true for a filter such as "/done", or a first argument containing a range or a list; a "-" only
+     *         counts as a range after a digit, so a negative index such as "-1" is reported as an index
+     */
+    private static boolean isBulkSelector(String contents) {
+        int end = contents.indexOf(' ');
+        end = end < 0 ? contents.length() : end;
+        for (int i = 0; i < end; i++) {
+            char c = contents.charAt(i);
+            if (c == ',' || (c == '-' && i > 0 && Character.isDigit(contents.charAt(i - 1)))
+                    || (c == '/' && i == 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a bulk mark, unmark, delete or snooze command.
+     *
+     * @param instruction the command type
+     * @param contents the selector, e.g. "1-500", "3,7,9", "/done" or "/find report"
+     * @return BatchCommand or UnknownCommand if the selector is invalid
+     */
+    private static Command parseBatchCommand(String instruction, String contents) {
+        return parseBatchCommand(instruction, contents, null);
+    }
+
+    /**
+     * Parses a bulk command with an optional trailing duration.
+     *
+     * @param instruction the command type
+     * @param contents the selector, e.g. "1-500", "3,7,9", "/done" or "/find report"
+     * @param duration the duration for snooze, or null for other commands
+     * @return BatchCommand or UnknownCommand if the selector is invalid
+     */
+    private static Command parseBatchCommand(String instruction, String contents, String duration) {
+        TaskSelector selector;
+        if (contents.equals("/done")) {
+            selector = TaskSelector.ofDone();
+        } else if (contents.startsWith("/find")) {
+            String keyword = contents.substring(5).trim();
+            if (keyword.isEmpty()) {
+                return new UnknownCommand(instruction + " /find requires a search keyword!");
+            }
+            selector = TaskSelector.ofKeyword(keyword);
+        } else {
+            List<int[]> ranges = parseRanges(contents);
+            if (ranges == null) {
+                return new UnknownCommand("Task indices must look like 1-500 or 3,7,9, not '" + contents + "'!");
+            }
+            selector = TaskSelector.ofRanges(ranges);
+        }
+
+        switch (instruction) {
+            case "mark":
+                return new BatchCommand(BatchCommand.Operation.MARK, selector);
+            case "unmark":
+                return new BatchCommand(BatchCommand.Operation.UNMARK, selector);
+            case "delete":
+                return new BatchCommand(BatchCommand.Operation.DELETE, selector);
+            case "snooze":
+                return new BatchCommand(BatchCommand.Operation.SNOOZE, selector, duration);
+            default:
+                return new UnknownCommand();
+        }
+    }
 
+    /**
+     * Parses a comma-separated list of positive indices and ranges into zero-based inclusive ranges.
+     *
+     * @param contents e.g. "1-5,8,10-12"
+     * @return the ranges, or null if any part is not a positive index or an ascending range
+     */
+    private static List<int[]> parseRanges(String contents) {
+        List<int[]> ranges = new ArrayList<>();
+        for (String part : contents.split(",", -1)) {
+            String[] ends = part.trim().split("-", -1);
+            if (ends.length > 2) {
+                return null;
+            }
+            try {
+                int first = Integer.parseInt(ends[0].trim()) - 1;
+                int last = ends.length == 2 ? Integer.parseInt(ends[1].trim()) - 1 : first;
+                if (first < 0 || last < first) {
+                    return null;
+                }
+                ranges.add(new int[] {first, last});
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return ranges;
+    }
+}
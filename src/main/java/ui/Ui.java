@@ -2,6 +2,7 @@ package ui;
 
 import task.TaskList;
 import task.Task;
+import task.TimeSlot;
 
 import java.util.Scanner;
 import java.util.ArrayList;
@@ -12,6 +13,8 @@ import java.util.ArrayList;
  * Centralizes all user-facing text and formatting for consistency.
  */
 public class Ui {
+    private static final int BATCH_PREVIEW = 5;
+
     private final Scanner sc = new Scanner(System.in);
     private final String name;
 
@@ -58,8 +61,9 @@ public class Ui {
     public String showList(TaskList tasks) {
         StringBuilder list = new StringBuilder();
         list.append("your tasks are here:");
-        for (int i = 1; i <= tasks.size(); i++) {
-            list.append("\n").append(i).append(".").append(tasks.get(i - 1).toString());
+        int i = 1;
+        for (Task task : tasks) {
+            list.append("\n").append(i++).append(".").append(task.toString());
         }
         return list.toString();
     }
@@ -134,6 +138,39 @@ public class Ui {
                 "\nNow you have " + tasks.size() + " tasks in the list.";
     }
 
+    /**
+     * Returns a summary of a bulk change, listing the first few tasks it touched.
+     *
+     * @param action what was done to the tasks, e.g. "marked"
+     * @param changed the tasks that were changed, in list order
+     * @param skipped how many selected tasks could not be changed
+     * @return summary message with the number of tasks changed and skipped
+     */
+    public String showBatch(String action, ArrayList<Task> changed, int skipped) {
+        if (changed.isEmpty() && skipped == 0) {
+            return "no tasks matched, nothing to do!";
+        }
+
+        StringBuilder summary = new StringBuilder();
+        summary.append("Ok! I've ").append(action).append(" ").append(changed.size())
+                .append(changed.size() == 1 ? " task" : " tasks");
+        int shown = Math.min(changed.size(), BATCH_PREVIEW);
+        if (shown > 0) {
+            summary.append(":");
+        }
+        for (int i = 0; i < shown; i++) {
+            summary.append("\n").append(changed.get(i).toString());
+        }
+        if (changed.size() > shown) {
+            summary.append("\n...and ").append(changed.size() - shown).append(" more");
+        }
+        if (skipped > 0) {
+            summary.append("\n(skipped ").append(skipped).append(skipped == 1 ? " task" : " tasks")
+                    .append(" that can't be ").append(action).append(")");
+        }
+        return summary.toString();
+    }
+
     /**
      * Returns the provided error message without additional formatting.
      *
@@ -159,6 +196,102 @@ public class Ui {
         return list.toString();
     }
 
+    /**
+     * Formats and returns the deadlines in a window, numbered by their position in the full list
+     * so that they can be marked or snoozed straight away.
+     *
+     * @param matches the deadlines in the window, earliest first
+     * @param tasks the full task list, used to look up each deadline's number
+     * @return formatted string showing the deadlines, or a note if there are none
+     */
+    public String showDueTasks(ArrayList<Task> matches, TaskList tasks) {
+        if (matches.isEmpty()) {
+            return "nothing is due then!";
+        }
+        return showNumbered("these are due:", matches, tasks);
+    }
+
+    /**
+     * Formats and returns the events taking place in a window, numbered by their position in the full list.
+     *
+     * @param matches the events in the window, ordered by start
+     * @param tasks the full task list, used to look up each event's number
+     * @return formatted string showing the events, or a note if there are none
+     */
+    public String showBusyTasks(ArrayList<Task> matches, TaskList tasks) {
+        if (matches.isEmpty()) {
+            return "you're free then!";
+        }
+        return showNumbered("you're busy with:", matches, tasks);
+    }
+
+    /**
+     * Formats and returns the free slots found between events.
+     *
+     * @param slots the free slots, earliest first
+     * @return formatted string showing the slots, or a note if there are none
+     */
+    public String showFreeSlots(ArrayList<TimeSlot> slots) {
+        if (slots.isEmpty()) {
+            return "no gap that long, your schedule is packed!";
+        }
+        StringBuilder list = new StringBuilder();
+        list.append("you're free:");
+        for (int i = 0; i < slots.size(); i++) {
+            list.append("\n").append(i + 1).append(".").append(slots.get(i));
+        }
+        return list.toString();
+    }
+
+    /**
+     * Returns the confirmation message for exporting tasks to a file.
+     *
+     * @param count the number of tasks written
+     * @param fileName the file they were written to
+     * @return formatted confirmation message
+     */
+    public String showExported(int count, String fileName) {
+        return "Done! I've written " + count + " tasks to " + fileName;
+    }
+
+    /**
+     * Formats and returns the latency statistics collected so far.
+     *
+     * @param report the table of latencies, one phase or command per line
+     * @return formatted string showing the statistics
+     */
+    public String showStats(String report) {
+        return "here's how fast I've been:\n" + report;
+    }
+
+    /**
+     * Returns a warning listing the events a newly added event clashes with.
+     *
+     * @param conflicts the other events overlapping the new one, ordered by start
+     * @param tasks the full task list, used to look up each event's number
+     * @return formatted warning showing the clashing events
+     */
+    public String showConflicts(ArrayList<Task> conflicts, TaskList tasks) {
+        return showNumbered("Heads up, this clashes with:", conflicts, tasks);
+    }
+
+    /**
+     * Formats tasks under a heading, numbered by their position in the full list.
+     *
+     * @param heading the first line of the message
+     * @param matches the tasks to show
+     * @param tasks the full task list, used to look up each task's number
+     * @return formatted string showing the tasks
+     */
+    private String showNumbered(String heading, ArrayList<Task> matches, TaskList tasks) {
+        StringBuilder list = new StringBuilder();
+        list.append(heading);
+        for (Task task : matches) {
+            list.append("\n").append(tasks.indexOfId(task.getId()) + 1).append(".").append(task.toString());
+        }
+        return list.toString();
+    }
+
     /**
      * Returns confirmation message for task snoozing.
      *
@@ -0,0 +1,626 @@
+package bug;
+
+import command.EventCommand;
+import exception.BugException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import storage.Durability;
+import storage.SnapshotFormat;
+import storage.Storage;
+import task.*;
+import ui.Ui;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalTest {
+
+    private Path testDataDir;
+    private Path testFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        testDataDir = Files.createTempDirectory("bug-journal-test");
+        testFile = testDataDir.resolve("bug.txt");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(testDataDir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    // Test 1: journaled mutations survive a reload without rewriting the snapshot
+    @Test
+    public void testReplayJournal() throws BugException {
+        Storage storage = new Storage(testFile, true);
+        TaskList tasks = new TaskList(storage.load());
+
+        Task todo = new ToDos("buy milk");
+        tasks.add(todo);
+        storage.saveAdded(tasks, todo);
+        Task deadline = new Deadlines("report", LocalDate.of(2025, 1, 1));
+        tasks.add(deadline);
+        storage.saveAdded(tasks, deadline);
+        Task extra = new ToDos("to be removed");
+        tasks.add(extra);
+        storage.saveAdded(tasks, extra);
+
+        tasks.get(0).markAsDone();
+        storage.saveMarked(tasks, 0);
+        tasks.get(1).snooze(Duration.ofDays(2));
+        storage.saveSnoozed(tasks, 1, Duration.ofDays(2));
+        tasks.delete(2);
+        storage.saveDeleted(tasks, 2);
+        storage.close();
+
+        assertTrue(Files.notExists(testFile), "snapshot should not be written by single mutations");
+
+        List<Task> loaded = new Storage(testFile, true).load();
+        assertEquals(2, loaded.size());
+        assertEquals("X", loaded.get(0).getStatusIcon());
+        assertEquals("D | 0 | report | 2025-01-03", loaded.get(1).toFileString());
+    }
+
+    // Test 2: a full update folds the journal into the snapshot
+    @Test
+    public void testUpdateResetsJournal() throws BugException {
+        Storage storage = new Storage(testFile, true);
+        TaskList tasks = new TaskList(storage.load());
+        Task todo = new ToDos("read book");
+        tasks.add(todo);
+        storage.saveAdded(tasks, todo);
+
+        storage.update(tasks);
+        tasks.get(0).markAsDone();
+        storage.saveMarked(tasks, 0);
+        storage.close();
+
+        List<Task> loaded = new Storage(testFile, true).load();
+        assertEquals(1, loaded.size());
+        assertEquals("T | 1 | read book", loaded.get(0).toFileString());
+    }
+
+    // Test 3: a journal left behind from an older snapshot is not applied twice
+    @Test
+    public void testStaleJournalIgnored() throws BugException, IOException {
+        Storage storage = new Storage(testFile, true);
+        TaskList tasks = new TaskList(storage.load());
+        Task todo = new ToDos("only once");
+        tasks.add(todo);
+        storage.saveAdded(tasks, todo);
+        storage.close();
+
+        // Simulate a crash after the snapshot was written but before the journal was reset
+        Path journal = testDataDir.resolve("bug.journal");
+        String leftover = Files.readString(journal);
+        storage.update(tasks);
+        storage.close();
+        Files.writeString(journal, leftover);
+
+        List<Task> loaded = new Storage(testFile, true).load();
+        assertEquals(1, loaded.size());
+    }
+
+    // Test 4: storage without a journal keeps rewriting the snapshot
+    @Test
+    public void testUnjournaledStorageRewritesSnapshot() throws BugException {
+        Storage storage = new Storage(testFile, false);
+        TaskList tasks = new TaskList(storage.load());
+        Task todo = new ToDos("plain");
+        tasks.add(todo);
+        storage.saveAdded(tasks, todo);
+
+        assertTrue(Files.exists(testFile));
+        assertTrue(Files.notExists(testDataDir.resolve("bug.journal")));
+        assertEquals(1, new Storage(testFile, false).load().size());
+    }
+
+    // Test 5: a journal past the threshold is compacted into the snapshot in the background
+    @Test
+    public void testCompaction() throws BugException, IOException {
+        Storage storage = new Storage(testFile, true);
+        storage.setCompactionThreshold(3, Long.MAX_VALUE);
+        TaskList tasks = new TaskList(storage.load());
+        for (int i = 0; i < 5; i++) {
+            Task todo = new ToDos("task " + i);
+            tasks.add(todo);
+            storage.saveAdded(tasks, todo);
+        }
+        storage.close();
+
+        List<String> snapshot = Files.readAllLines(testFile);
+        assertTrue(snapshot.get(0).startsWith("# gen 1 "));
+        assertEquals(4, snapshot.size());
+        assertTrue(Files.notExists(testDataDir.resolve("bug.journal.sealed")));
+
+        List<Task> loaded = new Storage(testFile, true).load();
+        assertEquals(5, loaded.size());
+        assertEquals("task 4", loaded.get(4).getDescription());
+    }
+
+    // Test 6: a sealed journal left over from an interrupted compaction is replayed and compacted on load
+    @Test
+    public void testInterruptedCompactionRecovered() throws BugException, IOException {
+        Storage storage = new Storage(testFile, true);
+        TaskList tasks = new TaskList(storage.load());
+        Task todo = new ToDos("sealed");
+        tasks.add(todo);
+        storage.saveAdded(tasks, todo);
+        storage.close();
+
+        // Simulate a crash right after the journal was sealed
+        Files.move(testDataDir.resolve("bug.journal"), testDataDir.resolve("bug.journal.sealed"));
+        Files.writeString(testDataDir.resolve("bug.journal"), "# base 1" + System.lineSeparator()
+                + "mark | 0" + System.lineSeparator());
+
+        Storage reopened = new Storage(testFile, true);
+        List<Task> loaded = reopened.load();
+        reopened.close();
+        assertEquals(1, loaded.size());
+        assertEquals("X", loaded.get(0).getStatusIcon());
+        assertTrue(Files.notExists(testDataDir.resolve("bug.journal.sealed")));
+        assertTrue(Files.readAllLines(testFile).get(0).startsWith("# gen 1 "));
+    }
+
+    // Test 7: asynchronous writes are all on disk once the storage is closed
+    @Test
+    public void testAsyncWritesFlushedOnClose() throws BugException {
+        Storage storage = new Storage(testFile, true);
+        storage.enableAsyncWrites(10);
+        storage.setDurability(Durability.FSYNC);
+        TaskList tasks = new TaskList(storage.load());
+        for (int i = 0; i < 100; i++) {
+            Task todo = new ToDos("async " + i);
+            tasks.add(todo);
+            storage.saveAdded(tasks, todo);
+        }
+        tasks.get(99).markAsDone();
+        storage.saveMarked(tasks, 99);
+        storage.close();
+
+        List<Task> loaded = new Storage(testFile, true).load();
+        assertEquals(100, loaded.size());
+        assertEquals("X", loaded.get(99).getStatusIcon());
+    }
+
+    // Test 8: records still queued when a full update happens are not replayed on top of it
+    @Test
+    public void testAsyncQueueDiscardedByUpdate() throws BugException {
+        Storage storage = new Storage(testFile, true);
+        storage.enableAsyncWrites(200);
+        TaskList tasks = new TaskList(storage.load());
+        Task todo = new ToDos("queued");
+        tasks.add(todo);
+        storage.saveAdded(tasks, todo);
+        storage.update(tasks);
+        storage.close();
+
+        assertEquals(1, new Storage(testFile, true).load().size());
+    }
+
+    // Test 9: a torn record at the end of the journal is dropped and the intact prefix is kept
+    @Test
+    public void testTornJournalTailRecovered() throws BugException, IOException {
+        Storage storage = new Storage(testFile, true);
+        TaskList tasks = new TaskList(storage.load());
+        for (String description : new String[] {"first", "second"}) {
+            Task todo = new ToDos(description);
+            tasks.add(todo);
+            storage.saveAdded(tasks, todo);
+        }
+        storage.close();
+
+        // Simulate a crash halfway through writing the last record
+        Path journal = testDataDir.resolve("bug.journal");
+        String content = Files.readString(journal).stripTrailing();
+        Files.writeString(journal, content.substring(0, content.length() - 4));
+
+        List<Task> loaded = new Storage(testFile, true).load();
+        assertEquals(1, loaded.size());
+        assertEquals("first", loaded.get(0).getDescription());
+    }
+
+    // Test 10: a damaged snapshot record cuts loading off at the last good record
+    @Test
+    public void testDamagedSnapshotRecoversPrefix() throws BugException, IOException {
+        Storage storage = new Storage(testFile, false);
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDos("keep me"));
+        tasks.add(new ToDos("flipped bit"));
+        tasks.add(new ToDos("after damage"));
+        storage.update(tasks);
+
+        assertTrue(Files.notExists(testDataDir.resolve("bug.txt.tmp")), "temp file should be moved into place");
+        String content = Files.readString(testFile).replace("flipped bit", "flipped bat");
+        Files.writeString(testFile, content);
+
+        List<Task> loaded = new Storage(testFile, false).load();
+        assertEquals(1, loaded.size());
+        assertEquals("keep me", loaded.get(0).getDescription());
+    }
+
+    // Test 11: tasks of every type round-trip through the binary snapshot together with the journal
+    @Test
+    public void testBinarySnapshotRoundTrip() throws BugException {
+        Storage storage = new Storage(testFile, true);
+        storage.setSnapshotFormat(SnapshotFormat.BINARY);
+        TaskList tasks = new TaskList(storage.load());
+        tasks.add(new ToDos("plain | piped"));
+        tasks.add(new Deadlines("report", LocalDate.of(2025, 1, 1)));
+        tasks.add(new Events("trip", LocalDateTime.of(2025, 3, 1, 9, 30), LocalDateTime.of(2025, 3, 2, 18, 0)));
+        tasks.get(1).markAsDone();
+        storage.update(tasks);
+        Task todo = new ToDos("journaled");
+        tasks.add(todo);
+        storage.saveAdded(tasks, todo);
+        storage.close();
+
+        assertTrue(Files.exists(testDataDir.resolve("bug.bin")));
+        assertTrue(Files.notExists(testFile));
+
+        Storage reopened = new Storage(testFile, true);
+        reopened.setSnapshotFormat(SnapshotFormat.BINARY);
+        List<Task> loaded = reopened.load();
+        reopened.close();
+        assertEquals(4, loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toFileString(), loaded.get(i).toFileString());
+        }
+    }
+
+    // Test 12: a text snapshot is migrated to binary and back without losing its journal or either file
+    @Test
+    public void testSnapshotMigration() throws BugException, IOException {
+        Storage storage = new Storage(testFile, true);
+        TaskList tasks = new TaskList(storage.load());
+        tasks.add(new ToDos("migrated"));
+        storage.update(tasks);
+        Task todo = new ToDos("from journal");
+        tasks.add(todo);
+        storage.saveAdded(tasks, todo);
+        storage.close();
+        String original = Files.readString(testFile);
+
+        Storage binary = new Storage(testFile, true);
+        binary.setSnapshotFormat(SnapshotFormat.BINARY);
+        TaskList binaryTasks = new TaskList(binary.load());
+        assertEquals(2, binaryTasks.size());
+        assertEquals(original, Files.readString(testFile), "the text snapshot should be kept as it was");
+        assertTrue(Files.exists(testDataDir.resolve("bug.bin")));
+        binaryTasks.add(new ToDos("binary only"));
+        binary.update(binaryTasks);
+        binary.close();
+
+        List<Task> exported = new Storage(testFile, true).load();
+        assertEquals(3, exported.size());
+        assertEquals("from journal", exported.get(1).getDescription());
+        assertEquals("binary only", exported.get(2).getDescription());
+        assertTrue(Files.exists(testDataDir.resolve("bug.bin")));
+    }
+
+    // Test 13: a snapshot large enough to be parsed in chunks keeps file order and reports file line numbers
+    @Test
+    public void testLargeSnapshotLoadedInOrder() throws BugException, IOException {
+        Storage storage = new Storage(testFile, false);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 60_000; i++) {
+            tasks.add(i % 2 == 0 ? new ToDos("task " + i) : new Deadlines("task " + i, LocalDate.of(2025, 1, 1)));
+        }
+        storage.update(tasks);
+
+        List<Task> loaded = new Storage(testFile, false).load();
+        assertEquals(60_000, loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals("task " + i, loaded.get(i).getDescription());
+        }
+
+        String content = Files.readString(testFile).replace("task 45000 ", "task 45OOO ");
+        Files.writeString(testFile, content);
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(err, true));
+        try {
+            loaded = new Storage(testFile, false).load();
+        } finally {
+            System.setErr(originalErr);
+        }
+        assertEquals(45_000, loaded.size());
+        assertEquals("task 44999", loaded.get(44_999).getDescription());
+        assertTrue(err.toString().contains("damaged from line 45002,"), err.toString());
+    }
+
+    // Test 14: records without checksums decode the same way the old split-based parser did
+    @Test
+    public void testUnsealedRecordsDecoded() throws BugException, IOException {
+        Files.writeString(testFile, String.join(System.lineSeparator(),
+                "  T|1|caf\u00e9 cr\u00e8me  ",
+                "D | 0 | report |2025-02-28",
+                "E | 1 | trip | 2025-03-01T09:30 | 2025-03-02T18:00:15",
+                "T | 0 | trailing | |",
+                "D | 0 | bad date | 2025-02-30",
+                "X | 0 | unknown type",
+                "T | 0",
+                "E | 0 | long | 2025-03-01T09:30:15.5 | 2025-03-01T10:00"));
+
+        List<Task> loaded = new Storage(testFile, false).load();
+        assertEquals(5, loaded.size());
+        assertEquals("T | 1 | caf\u00e9 cr\u00e8me", loaded.get(0).toFileString());
+        assertEquals("D | 0 | report | 2025-02-28", loaded.get(1).toFileString());
+        assertEquals("E | 1 | trip | 2025-03-01T09:30 | 2025-03-02T18:00:15", loaded.get(2).toFileString());
+        assertEquals("T | 0 | trailing", loaded.get(3).toFileString());
+        assertEquals("E | 0 | long | 2025-03-01T09:30:15.500 | 2025-03-01T10:00", loaded.get(4).toFileString());
+    }
+
+    // Test 15: streamed snapshot records match the ISO text of their dates and survive a reload
+    @Test
+    public void testStreamedRecordsMatchIsoDates() throws BugException {
+        LocalDateTime[] times = {
+            LocalDateTime.of(2025, 3, 1, 9, 0),
+            LocalDateTime.of(999, 12, 31, 23, 59, 1),
+            LocalDateTime.of(2025, 3, 1, 9, 30, 0, 120_000_000),
+            LocalDateTime.of(2025, 3, 1, 9, 30, 5, 123_456_000),
+            LocalDateTime.of(2025, 3, 1, 9, 30, 5, 7)
+        };
+        TaskList tasks = new TaskList();
+        for (LocalDateTime time : times) {
+            Task event = new Events("e", time, time.plusHours(1));
+            assertEquals("E | 0 | e | " + time + " | " + time.plusHours(1), event.toFileString());
+            tasks.add(event);
+        }
+        Task deadline = new Deadlines("d", LocalDate.of(12, 1, 5));
+        assertEquals("D | 0 | d | 0012-01-05", deadline.toFileString());
+        tasks.add(deadline);
+
+        Storage storage = new Storage(testFile, false);
+        storage.update(tasks);
+        List<Task> loaded = new Storage(testFile, false).load();
+        assertEquals(tasks.size(), loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toFileString(), loaded.get(i).toFileString());
+        }
+    }
+
+    // Test 16: a bulk change is written as one record and replays to the same list
+    @Test
+    public void testBatchRecordsReplay() throws BugException, IOException {
+        Storage storage = new Storage(testFile, true);
+        TaskList tasks = new TaskList(storage.load());
+        for (int i = 0; i < 10; i++) {
+            Task deadline = new Deadlines("d" + i, LocalDate.of(2025, 1, 1 + i));
+            tasks.add(deadline);
+            storage.saveAdded(tasks, deadline);
+        }
+
+        for (int i = 0; i < 6; i++) {
+            tasks.get(i).markAsDone();
+        }
+        storage.saveMarked(tasks, 0, 1, 2, 3, 4, 5);
+        tasks.get(2).markAsUndone();
+        storage.saveUnmarked(tasks, 2);
+        tasks.delete(9);
+        tasks.delete(4);
+        tasks.delete(0);
+        storage.saveDeleted(tasks, 9, 4, 0);
+        tasks.snooze(1, Duration.ofDays(3));
+        tasks.snooze(5, Duration.ofDays(3));
+        storage.saveSnoozed(tasks, new int[] {1, 5}, Duration.ofDays(3));
+        storage.close();
+
+        Path journal = testDataDir.resolve("bug.journal");
+        assertEquals(10 + 4, Files.readAllLines(journal).size() - 1, "each bulk change should be one record");
+
+        List<Task> loaded = new Storage(testFile, true).load();
+        assertEquals(tasks.size(), loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toFileString(), loaded.get(i).toFileString());
+        }
+    }
+
+    // Test 17: a batch is written once on commit and leaves no trace when rolled back
+    @Test
+    public void testBatchCommitAndRollback() throws BugException, IOException {
+        Storage storage = new Storage(testFile, true);
+        TaskList tasks = new TaskList(storage.load());
+        Task first = new ToDos("before batch");
+        tasks.add(first);
+        storage.saveAdded(tasks, first);
+
+        storage.beginBatch();
+        for (int i = 0; i < 3; i++) {
+            Task todo = new ToDos("import " + i);
+            tasks.add(todo);
+            storage.saveAdded(tasks, todo);
+        }
+        tasks.get(0).markAsDone();
+        storage.saveMarked(tasks, 0);
+        assertEquals(1, new Storage(testFile, true).load().size(), "nothing should be written before commit");
+        storage.commitBatch(tasks);
+        assertTrue(Files.exists(testFile), "commit should write a snapshot");
+
+        storage.beginBatch();
+        Task extra = new ToDos("rolled back");
+        tasks.add(extra);
+        storage.saveAdded(tasks, extra);
+        tasks.delete(1);
+        storage.saveDeleted(tasks, 1);
+        List<Task> restored = storage.rollbackBatch();
+        assertEquals(4, restored.size());
+        assertEquals("T | 1 | before batch", restored.get(0).toFileString());
+        assertEquals("T | 0 | import 0", restored.get(1).toFileString());
+        storage.close();
+
+        List<Task> loaded = new Storage(testFile, true).load();
+        assertEquals(4, loaded.size());
+        assertEquals("T | 0 | import 2", loaded.get(3).toFileString());
+    }
+
+    // Test 18: a damaged sealed journal is replaced by a full snapshot instead of blocking compaction forever
+    @Test
+    public void testDamagedSealedJournalCheckpointed() throws BugException, IOException, InterruptedException {
+        Storage storage = new Storage(testFile, true);
+        storage.setCompactionThreshold(3, Long.MAX_VALUE);
+        TaskList tasks = new TaskList(storage.load());
+        Path sealed = testDataDir.resolve("bug.journal.sealed");
+        Files.writeString(sealed, "# base 0" + System.lineSeparator() + "mark | 5" + System.lineSeparator());
+
+        PrintStream originalErr = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            for (int i = 0; i < 500 && Files.exists(sealed); i++) {
+                Task todo = new ToDos("task " + i);
+                tasks.add(todo);
+                storage.saveAdded(tasks, todo);
+                Thread.sleep(5);
+            }
+        } finally {
+            System.setErr(originalErr);
+        }
+        storage.close();
+
+        assertTrue(Files.notExists(sealed), "the damaged sealed journal should be dropped");
+        assertTrue(Files.readAllLines(testDataDir.resolve("bug.journal")).size() <= 4, "the journal should restart");
+        List<Task> loaded = new Storage(testFile, true).load();
+        assertEquals(tasks.size(), loaded.size());
+        assertEquals("task 0", loaded.get(0).getDescription());
+    }
+
+    // Test 19: a batch the writer thread fails to write is kept and saved by a later checkpoint
+    @Test
+    public void testFailedAsyncBatchRetried() throws BugException, IOException, InterruptedException {
+        Storage storage = new Storage(testFile, true);
+        storage.enableAsyncWrites(10);
+        TaskList tasks = new TaskList(storage.load());
+        Path journalFile = testDataDir.resolve("bug.journal");
+        Files.delete(journalFile);
+        Files.createDirectory(journalFile); // Appending to the journal now fails
+
+        Task lost = new ToDos("queued");
+        tasks.add(lost);
+        storage.saveAdded(tasks, lost);
+        Thread.sleep(500);
+
+        Task next = new ToDos("next");
+        tasks.add(next);
+        BugException error = assertThrows(BugException.class, () -> storage.saveAdded(tasks, next));
+        assertTrue(error.getMessage().contains("queued"), error.getMessage());
+
+        Files.delete(journalFile);
+        Task last = new ToDos("last");
+        tasks.add(last);
+        storage.saveAdded(tasks, last);
+        storage.close();
+
+        List<Task> loaded = new Storage(testFile, true).load();
+        assertEquals(3, loaded.size());
+        assertEquals("queued", loaded.get(0).getDescription());
+    }
+
+    // Test 20: a snapshot with a corrupt header is kept as a backup instead of being overwritten
+    @Test
+    public void testCorruptHeaderBackedUp() throws BugException, IOException {
+        Path binaryFile = testDataDir.resolve("bug.bin");
+        byte[] corrupt = "not a snapshot at all".getBytes();
+        Files.write(binaryFile, corrupt);
+
+        PrintStream originalErr = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            Storage storage = new Storage(testFile, true);
+            storage.setSnapshotFormat(SnapshotFormat.BINARY);
+            TaskList tasks = new TaskList(storage.load());
+            assertEquals(0, tasks.size());
+            Task todo = new ToDos("after corruption");
+            tasks.add(todo);
+            storage.saveAdded(tasks, todo);
+            storage.update(tasks);
+            storage.close();
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        assertArrayEquals(corrupt, Files.readAllBytes(testDataDir.resolve("bug.bin.bak")));
+        Storage reopened = new Storage(testFile, true);
+        reopened.setSnapshotFormat(SnapshotFormat.BINARY);
+        assertEquals(1, reopened.load().size());
+    }
+
+    // Test 21: an export writes a readable copy that can be loaded as a text snapshot
+    @Test
+    public void testExportText() throws BugException {
+        Storage storage = new Storage(testFile, true);
+        storage.setSnapshotFormat(SnapshotFormat.BINARY);
+        TaskList tasks = new TaskList(storage.load());
+        tasks.add(new ToDos("exported"));
+        tasks.add(new Deadlines("report", LocalDate.of(2025, 1, 31)));
+        storage.update(tasks);
+
+        Path copy = testDataDir.resolve("copy.txt");
+        storage.exportText(tasks, copy);
+        storage.close();
+
+        List<Task> loaded = new Storage(copy, false).load();
+        assertEquals(2, loaded.size());
+        assertEquals(tasks.get(1).toFileString(), loaded.get(1).toFileString());
+    }
+
+    // Test 22: a script whose snooze fails is rolled back instead of being committed
+    @Test
+    public void testFailedSnoozeRollsBackScript() throws BugException {
+        Storage storage = new Storage(testFile, true);
+        BufferedReader script = new BufferedReader(new StringReader("todo first\ntodo second\nsnooze 1 2d\n"));
+        assertFalse(new Bug(storage).runScript(script, 0));
+        assertEquals(0, new Storage(testFile, true).load().size());
+
+        BufferedReader badIndex = new BufferedReader(new StringReader("todo first\nsnooze 5 2d\ntodo third\n"));
+        assertFalse(new Bug(new Storage(testFile, true)).runScript(badIndex, 1));
+        assertEquals(1, new Storage(testFile, true).load().size());
+    }
+
+    // Test 23: commands queued behind an exit are refused instead of being saved to closed storage
+    @Test
+    public void testCommandsAfterExitRefused() throws BugException {
+        Bug bug = new Bug(new Storage(testFile, true));
+        bug.getResponse("todo before");
+        bug.getResponse("bye");
+        assertTrue(bug.isClosed());
+        assertTrue(bug.getResponse("todo after").contains("already exited"));
+        bug.close();
+
+        List<Task> saved = new Storage(testFile, true).load();
+        assertEquals(1, saved.size());
+        assertEquals("before", saved.get(0).getDescription());
+    }
+
+    // Test 24: an event that cannot be saved reports the save error, not a datetime error
+    @Test
+    public void testEventSaveErrorReported() throws IOException {
+        Path blocked = testDataDir.resolve("blocked");
+        Files.writeString(blocked, "not a directory");
+        Storage storage = new Storage(blocked.resolve("bug.txt"), false);
+        TaskList tasks = new TaskList();
+
+        BugException e = assertThrows(BugException.class, () -> new EventCommand("meeting", "2025-01-06 0900",
+                "2025-01-06 1000").execute(tasks, new Ui(), storage));
+        assertFalse(e.getMessage().contains("datetime"), e.getMessage());
+        assertThrows(BugException.class, () -> new EventCommand("meeting", "2025-01-06 9am", "2025-01-06 1000")
+                .execute(tasks, new Ui(), storage));
+    }
+}
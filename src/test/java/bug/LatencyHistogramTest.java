@@ -0,0 +1,71 @@
+package bug;
+
+import metrics.LatencyHistogram;
+import metrics.LatencyRecorder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    // Test 1: an empty histogram reports zeros
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0, histogram.getMax());
+    }
+
+    // Test 2: small values are recorded exactly
+    @Test
+    public void testSmallValuesExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 7; i++) {
+            histogram.record(i);
+        }
+        assertEquals(7, histogram.getCount());
+        assertEquals(4, histogram.getPercentile(50));
+        assertEquals(7, histogram.getPercentile(100));
+    }
+
+    // Test 3: percentiles of large values are within an eighth of the true value and never above the max
+    @Test
+    public void testPercentilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000);
+        }
+        long p50 = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p50 >= 5_000_000 && p50 <= 5_000_000 * 9 / 8, "p50 was " + p50);
+        assertTrue(p99 >= 9_900_000 && p99 <= 10_000_000, "p99 was " + p99);
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(10_000_000, histogram.getPercentile(100));
+    }
+
+    // Test 4: extreme values do not overflow the buckets
+    @Test
+    public void testExtremeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+    }
+
+    // Test 5: the report lists every phase and each recorded command
+    @Test
+    public void testReport() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(LatencyRecorder.Phase.PARSE, 2_000);
+        recorder.recordCommand("ListCommand", 3_500_000);
+        String report = recorder.report();
+        assertTrue(report.contains("parse"));
+        assertTrue(report.contains("persist"));
+        assertTrue(report.indexOf("execute") < report.indexOf("  ListCommand"), report);
+        assertTrue(report.indexOf("  ListCommand") < report.indexOf("persist"), report);
+        assertTrue(report.contains("3.5ms"), report);
+    }
+}
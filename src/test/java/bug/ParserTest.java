@@ -1,8 +1,13 @@
 package bug;
 
 import command.*;
+import exception.BugException;
 import org.junit.jupiter.api.Test;
+import task.TaskList;
 import ui.Parser;
+import ui.Ui;
+
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -99,6 +104,64 @@ public class ParserTest {
         assertTrue(command instanceof FindCommand);
     }
 
+    @Test
+    public void testParseFindWholeWord() {
+        assertTrue(Parser.parse("find /w book") instanceof FindCommand);
+        assertTrue(Parser.parse("find /i /w Book") instanceof FindCommand);
+        assertTrue(Parser.parse("find /w") instanceof UnknownCommand);
+        assertTrue(Parser.parse("find /w /i") instanceof UnknownCommand);
+    }
+
+    @Test
+    public void testParseDue() {
+        assertTrue(Parser.parse("due next 7d") instanceof DueCommand);
+        assertTrue(Parser.parse("due 2025-01-01 2025-01-31") instanceof DueCommand);
+        assertTrue(Parser.parse("due next 2w") instanceof DueCommand);
+        assertTrue(Parser.parse("due next 36h") instanceof DueCommand);
+        assertTrue(Parser.parse("due next 1d12h") instanceof DueCommand);
+        assertTrue(Parser.parse("due next week") instanceof UnknownCommand);
+        assertTrue(Parser.parse("due next 7") instanceof UnknownCommand);
+        assertTrue(Parser.parse("due 2025-01-01") instanceof UnknownCommand);
+    }
+
+    @Test
+    public void testParseBusy() {
+        assertTrue(Parser.parse("busy 2025-01-06 0900") instanceof BusyCommand);
+        assertTrue(Parser.parse("busy 2025-01-06 0900 /to 2025-01-06 1700") instanceof BusyCommand);
+        assertTrue(Parser.parse("busy") instanceof UnknownCommand);
+        assertTrue(Parser.parse("busy 2025-01-06 0900 /to") instanceof UnknownCommand);
+    }
+
+    @Test
+    public void testParseBatch() throws BugException {
+        assertTrue(Parser.parse("mark 1-500") instanceof BatchCommand);
+        assertTrue(Parser.parse("unmark 1-3,8") instanceof BatchCommand);
+        assertTrue(Parser.parse("delete 3,7,9") instanceof BatchCommand);
+        assertTrue(Parser.parse("delete /done") instanceof BatchCommand);
+        assertTrue(Parser.parse("snooze /find report 2d") instanceof BatchCommand);
+        assertTrue(Parser.parse("snooze 1-5 2d") instanceof BatchCommand);
+        assertTrue(Parser.parse("mark 5-3") instanceof UnknownCommand);
+        assertTrue(Parser.parse("delete 0-2") instanceof UnknownCommand);
+        assertTrue(Parser.parse("delete 1,,2") instanceof UnknownCommand);
+        assertTrue(Parser.parse("mark /find") instanceof UnknownCommand);
+
+        // A negative index is not a range
+        Command negative = Parser.parse("mark -1");
+        assertTrue(negative instanceof UnknownCommand);
+        assertTrue(negative.execute(new TaskList(), new Ui(), null).contains("positive"));
+        assertTrue(Parser.parse("snooze -1 2d") instanceof UnknownCommand);
+        assertTrue(Parser.parse("snooze /done") instanceof UnknownCommand);
+    }
+
+    @Test
+    public void testParseFreeSlot() {
+        assertTrue(Parser.parse("freeslot 2h /between 2025-01-06 0900 /and 2025-01-06 1700")
+                instanceof FreeSlotCommand);
+        assertTrue(Parser.parse("freeslot 2h") instanceof UnknownCommand);
+        assertTrue(Parser.parse("freeslot /between 2025-01-06 0900 /and 2025-01-06 1700") instanceof UnknownCommand);
+        assertTrue(Parser.parse("freeslot 2h /between 2025-01-06 0900") instanceof UnknownCommand);
+    }
+
     // Test 10: test parsing bye command
     @Test
     public void testParseBye() {
@@ -119,6 +182,19 @@ public class ParserTest {
         assertTrue(command instanceof ListCommand);
     }
 
+    @Test
+    public void testParseStats() {
+        assertTrue(Parser.parse("stats") instanceof StatsCommand);
+        assertTrue(Parser.parse("STATS") instanceof StatsCommand);
+        assertTrue(Parser.parse("stats now") instanceof UnknownCommand);
+    }
+
+    @Test
+    public void testParseExport() {
+        assertTrue(Parser.parse("export tasks.txt") instanceof ExportCommand);
+        assertTrue(Parser.parse("export") instanceof UnknownCommand);
+    }
+
     // Test 12: test case insensitive parsing
     @Test
     public void testCaseInsensitive() {
@@ -132,7 +208,45 @@ public class ParserTest {
         }
     }
 
-    // Test 13: test invalid inputs return UnknownCommand
+    // Test 13: whitespace is collapsed before parsing, including tabs and line breaks
+    @Test
+    public void testWhitespaceNormalized() {
+        assertTrue(Parser.parse("  \tDeadline  return\tbook   /by\r\n2025-09-01 ") instanceof DeadlineCommand);
+        assertTrue(Parser.parse("event  meeting /from 2025-09-01\t0800  /to 2025-09-01 1200") instanceof EventCommand);
+        assertTrue(Parser.parse("snooze\t2 \t 3d") instanceof SnoozeCommand);
+        assertTrue(Parser.parse("mark\t\t1") instanceof MarkCommand);
+        assertTrue(Parser.parse("to-do read") instanceof UnknownCommand);
+    }
+
+    // Test 14: missing flag values are reported instead of failing
+    @Test
+    public void testMissingFlagValues() throws BugException {
+        Ui ui = new Ui();
+        assertEquals("Deadline command missing date after '/by'!",
+                Parser.parse("deadline report /by").execute(null, ui, null));
+        assertEquals("Deadline description cannot be empty!",
+                Parser.parse("deadline /by 2025-09-01").execute(null, ui, null));
+        assertEquals("Event times cannot be empty!",
+                Parser.parse("event meeting /from /to 2025-09-01 1200").execute(null, ui, null));
+        assertEquals("Event command missing '/to'!",
+                Parser.parse("event meeting /to 2025-09-01 1200 /from 2025-09-01 0800").execute(null, ui, null));
+    }
+
+    // Test 15: single and compound durations
+    @Test
+    public void testParseDuration() {
+        assertEquals(Duration.ofMinutes(30), DurationParser.parse("30m"));
+        assertEquals(Duration.ofDays(14), DurationParser.parse("2w"));
+        assertEquals(Duration.ofDays(1).plusHours(4).plusMinutes(30), DurationParser.parse("1d4h30m"));
+        assertEquals(Duration.ofDays(7).plusHours(2), DurationParser.parse("1w2h"));
+        assertEquals(Duration.ZERO, DurationParser.parse("0d"));
+        String[] invalid = {"", "d", "3", "3x", "30m1d", "1d1d", "1d 4h", "-1d", "1D", "9999999999m", null};
+        for (String text : invalid) {
+            assertNull(DurationParser.parse(text), "Should reject: " + text);
+        }
+    }
+
+    // Test 16: test invalid inputs return UnknownCommand
     @Test
     public void testInvalidInputs() {
         String[] invalidInputs = {
@@ -1,14 +1,17 @@
 package bug;
 
+import exception.BugException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import task.*;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -344,4 +347,290 @@ public class TaskListTest {
         assertTrue(matches.contains(task2));
         assertFalse(matches.contains(task3));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindWholeWords() {
+        Task notebook = new ToDos("buy notebook");
+        Task book = new ToDos("return book to library");
+        Task both = new ToDos("book a library room");
+
+        taskList.add(notebook);
+        taskList.add(book);
+        taskList.add(both);
+
+        ArrayList<Task> matches = taskList.findWholeWords("book");
+        assertEquals(2, matches.size());
+        assertEquals(book, matches.get(0));
+        assertEquals(both, matches.get(1));
+
+        ArrayList<Task> allWords = taskList.findWholeWords("library  book");
+        assertEquals(2, allWords.size());
+        assertTrue(taskList.findWholeWords("book room pen").isEmpty());
+    }
+
+    @Test
+    public void testFindWholeWordsAfterDelete() {
+        Task first = new ToDos("walk the dog");
+        Task second = new ToDos("feed the dog");
+        taskList.add(first);
+        taskList.add(second);
+
+        taskList.delete(0);
+
+        ArrayList<Task> matches = taskList.findWholeWords("dog");
+        assertEquals(1, matches.size());
+        assertEquals(second, matches.get(0));
+        assertTrue(taskList.findWholeWords("walk").isEmpty());
+    }
+
+    @Test
+    public void testFindTasksIgnoreCase() {
+        Task upperCase = new ToDos("Buy GROCERIES");
+        Task mixedCase = new ToDos("weekly Groceries run");
+        Task other = new ToDos("Do homework");
+
+        taskList.add(upperCase);
+        taskList.add(mixedCase);
+        taskList.add(other);
+
+        assertEquals(2, taskList.findTasks("groceries", true).size());
+        assertEquals(0, taskList.findTasks("groceries").size());
+        assertEquals(1, taskList.findTasks("Groc").size());
+        assertEquals(2, taskList.findWholeWords("groceries", true).size());
+        assertEquals(0, taskList.findWholeWords("groceries").size());
+        assertEquals(3, taskList.findTasks("o", true).size());
+    }
+
+    @Test
+    public void testFindTasksSubstringAfterDelete() {
+        Task book = new ToDos("read book");
+        Task notebook = new ToDos("buy notebook");
+        taskList.add(book);
+        taskList.add(notebook);
+
+        assertEquals(2, taskList.findTasks("ook").size());
+        taskList.delete(0);
+
+        ArrayList<Task> matches = taskList.findTasks("ook");
+        assertEquals(1, matches.size());
+        assertEquals(notebook, matches.get(0));
+    }
+
+    // Test 8: stable IDs and positional access
+    @Test
+    public void testIdsStayStableAcrossDeletes() {
+        taskList.add(todo1);
+        taskList.add(deadline1);
+        taskList.add(event1);
+        long eventId = event1.getId();
+
+        taskList.delete(0);
+
+        assertEquals(eventId, event1.getId());
+        assertEquals(event1, taskList.getById(eventId));
+        assertEquals(1, taskList.indexOfId(eventId));
+        assertNull(taskList.getById(todo1.getId()));
+        assertEquals(-1, taskList.indexOfId(todo1.getId()));
+    }
+
+    @Test
+    public void testPositionalOperationsMatchArrayList() {
+        Random random = new Random(42);
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                Task task = new ToDos("task " + i);
+                expected.add(task);
+                taskList.add(task);
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), taskList.delete(index));
+            }
+        }
+
+        assertEquals(expected.size(), taskList.size());
+        int i = 0;
+        for (Task task : taskList) {
+            assertEquals(expected.get(i), task);
+            assertEquals(task, taskList.get(i));
+            assertEquals(i, taskList.indexOfId(task.getId()));
+            i++;
+        }
+        assertEquals(expected.size(), i);
+    }
+
+    // Test 9: deadline index
+    @Test
+    public void testFindDueBetween() throws BugException {
+        Task early = new Deadlines("early", LocalDate.of(2025, 1, 5));
+        Task late = new Deadlines("late", LocalDate.of(2025, 1, 20));
+        Task outside = new Deadlines("outside", LocalDate.of(2025, 2, 1));
+        taskList.add(late);
+        taskList.add(todo1);
+        taskList.add(early);
+        taskList.add(outside);
+
+        ArrayList<Task> due = taskList.findDueBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        assertEquals(Arrays.asList(early, late), due);
+
+        taskList.snooze(2, Duration.ofDays(30));
+        due = taskList.findDueBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        assertEquals(Arrays.asList(late), due);
+        assertEquals(Arrays.asList(outside, early),
+                taskList.findDueBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 4)));
+
+        taskList.delete(0);
+        assertTrue(taskList.findDueBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)).isEmpty());
+    }
+
+    // Test 10: event interval index
+    @Test
+    public void testFindEventsOverlapping() throws BugException {
+        LocalDateTime nine = LocalDateTime.of(2025, 1, 6, 9, 0);
+        Task standup = new Events("standup", nine, nine.plusMinutes(30));
+        Task review = new Events("review", nine.plusMinutes(30), nine.plusHours(2));
+        Task offsite = new Events("offsite", nine.minusDays(1), nine.plusDays(1));
+        taskList.add(review);
+        taskList.add(todo1);
+        taskList.add(standup);
+        taskList.add(offsite);
+
+        assertEquals(Arrays.asList(offsite, standup), taskList.findEventsAt(nine));
+        assertEquals(Arrays.asList(offsite, review), taskList.findEventsAt(nine.plusMinutes(30)));
+        assertEquals(Arrays.asList(offsite, standup, review),
+                taskList.findEventsOverlapping(nine.minusHours(1), nine.plusHours(1)));
+        assertTrue(taskList.findEventsOverlapping(nine.plusDays(1), nine.plusDays(2)).isEmpty());
+
+        taskList.snooze(2, Duration.ofDays(7));
+        assertEquals(Arrays.asList(offsite), taskList.findEventsAt(nine));
+        assertEquals(Arrays.asList(standup), taskList.findEventsAt(nine.plusDays(7)));
+
+        taskList.delete(3);
+        assertEquals(Arrays.asList(review), taskList.findEventsAt(nine.plusHours(1)));
+    }
+
+    // Test 11: event index against a scan of random events
+    @Test
+    public void testFindEventsOverlappingRandom() {
+        Random random = new Random(13);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int round = 0; round < 500; round++) {
+            if (taskList.size() > 0 && random.nextInt(4) == 0) {
+                taskList.delete(random.nextInt(taskList.size()));
+            } else {
+                LocalDateTime start = base.plusHours(random.nextInt(200));
+                taskList.add(new Events("e" + round, start, start.plusHours(1 + random.nextInt(24))));
+            }
+
+            LocalDateTime from = base.plusHours(random.nextInt(220));
+            LocalDateTime to = from.plusHours(1 + random.nextInt(12));
+            List<Task> expected = new ArrayList<>();
+            for (Task task : taskList) {
+                Events event = (Events) task;
+                if (event.getStart().isBefore(to) && event.getEnd().isAfter(from)) {
+                    expected.add(task);
+                }
+            }
+            List<Task> actual = taskList.findEventsOverlapping(from, to);
+            assertEquals(expected.size(), actual.size());
+            assertTrue(actual.containsAll(expected));
+        }
+    }
+
+    // Test 12: free slots between events
+    @Test
+    public void testFindFreeSlots() {
+        LocalDateTime nine = LocalDateTime.of(2025, 1, 6, 9, 0);
+        taskList.add(new Events("standup", nine, nine.plusMinutes(30)));
+        taskList.add(new Events("review", nine.plusHours(1), nine.plusHours(3)));
+        taskList.add(new Events("pairing", nine.plusHours(2), nine.plusHours(4)));
+        taskList.add(new Events("lunch", nine.plusHours(4), nine.plusHours(5)));
+
+        List<TimeSlot> slots = taskList.findFreeSlots(nine, nine.plusHours(8), Duration.ofMinutes(30), 5);
+        assertEquals(2, slots.size());
+        assertEquals(nine.plusMinutes(30), slots.get(0).getStart());
+        assertEquals(nine.plusHours(1), slots.get(0).getEnd());
+        assertEquals(nine.plusHours(5), slots.get(1).getStart());
+        assertEquals(nine.plusHours(8), slots.get(1).getEnd());
+
+        slots = taskList.findFreeSlots(nine, nine.plusHours(8), Duration.ofHours(1), 5);
+        assertEquals(1, slots.size());
+        assertEquals(nine.plusHours(5), slots.get(0).getStart());
+
+        assertEquals(1, taskList.findFreeSlots(nine, nine.plusHours(8), Duration.ofMinutes(30), 1).size());
+        assertTrue(taskList.findFreeSlots(nine.plusHours(1), nine.plusHours(5), Duration.ofMinutes(1), 5).isEmpty());
+    }
+
+    // Test 13: free slots against a minute-by-minute scan of random events
+    @Test
+    public void testFindFreeSlotsRandom() {
+        Random random = new Random(14);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < 60; i++) {
+            LocalDateTime start = base.plusMinutes(random.nextInt(1400));
+            taskList.add(new Events("e" + i, start, start.plusMinutes(1 + random.nextInt(60))));
+        }
+
+        for (int round = 0; round < 50; round++) {
+            LocalDateTime from = base.plusMinutes(random.nextInt(1400));
+            LocalDateTime to = from.plusMinutes(1 + random.nextInt(300));
+            Duration length = Duration.ofMinutes(1 + random.nextInt(30));
+
+            List<TimeSlot> expected = new ArrayList<>();
+            LocalDateTime gapStart = null;
+            for (LocalDateTime t = from; !t.isAfter(to); t = t.plusMinutes(1)) {
+                boolean isFree = t.isBefore(to) && taskList.findEventsAt(t).isEmpty();
+                if (isFree && gapStart == null) {
+                    gapStart = t;
+                } else if (!isFree && gapStart != null) {
+                    if (!gapStart.plus(length).isAfter(t)) {
+                        expected.add(new TimeSlot(gapStart, t));
+                    }
+                    gapStart = null;
+                }
+            }
+
+            List<TimeSlot> actual = taskList.findFreeSlots(from, to, length, Integer.MAX_VALUE);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getStart(), actual.get(i).getStart());
+                assertEquals(expected.get(i).getEnd(), actual.get(i).getEnd());
+            }
+        }
+    }
+
+    // Test 14: substring and whole-word search against a scan while tasks are added and deleted
+    @Test
+    public void testFindAgainstScanWithChurn() {
+        Random random = new Random(14);
+        String[] words = {"book", "notebook", "Books", "pen", "open", "report", "Reporter", "pencil"};
+        String[] keywords = {"ook", "book", "pen", "Rep", "report", "encil", "xyz"};
+
+        for (int round = 0; round < 2000; round++) {
+            if (taskList.size() > 0 && random.nextInt(3) == 0) {
+                taskList.delete(random.nextInt(taskList.size()));
+            } else {
+                taskList.add(new ToDos(words[random.nextInt(words.length)] + " "
+                        + words[random.nextInt(words.length)]));
+            }
+            if (round % 50 != 0) {
+                continue;
+            }
+
+            for (String keyword : keywords) {
+                List<Task> expected = new ArrayList<>();
+                List<Task> expectedWords = new ArrayList<>();
+                for (Task task : taskList) {
+                    if (task.getDescription().contains(keyword)) {
+                        expected.add(task);
+                    }
+                    if (Arrays.asList(task.getDescription().split(" ")).contains(keyword)) {
+                        expectedWords.add(task);
+                    }
+                }
+                assertEquals(expected, taskList.findTasks(keyword));
+                assertEquals(expectedWords, taskList.findWholeWords(keyword));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package bug;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.collections.ListChangeListener;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranscriptTest {
+    private static final Path HISTORY = Path.of("data", "transcript-test.log");
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(HISTORY);
+    }
+
+    // Test 1: messages are kept in order below the capacity
+    @Test
+    public void testKeepsMessagesBelowCapacity() {
+        Transcript transcript = new Transcript(4, null);
+        transcript.add(new ChatMessage("hi", false));
+        transcript.add(new ChatMessage("list", true), new ChatMessage("your tasks are here:", false));
+
+        assertEquals(3, transcript.getMessages().size());
+        assertEquals("hi", transcript.getMessages().get(0).getText());
+        assertTrue(transcript.getMessages().get(1).isFromUser());
+    }
+
+    // Test 2: the oldest messages are dropped once the capacity is reached
+    @Test
+    public void testDropsOldestMessages() {
+        Transcript transcript = new Transcript(3, null);
+        for (int i = 1; i <= 10; i++) {
+            transcript.add(new ChatMessage("message " + i, i % 2 == 0));
+        }
+
+        assertEquals(3, transcript.getMessages().size());
+        assertEquals("message 8", transcript.getMessages().get(0).getText());
+        assertEquals("message 10", transcript.getMessages().get(2).getText());
+    }
+
+    // Test 3: dropped messages are appended to the history file
+    @Test
+    public void testSpillsDroppedMessages() throws IOException {
+        Files.createDirectories(HISTORY.getParent());
+        Transcript transcript = new Transcript(2, HISTORY);
+        transcript.add(new ChatMessage("hi", false));
+        transcript.add(new ChatMessage("todo a", true), new ChatMessage("added", false));
+        transcript.add(new ChatMessage("list", true));
+        transcript.close();
+
+        assertEquals(List.of("bug: hi", "you: todo a"), Files.readAllLines(HISTORY));
+        assertEquals("added", transcript.getMessages().get(0).getText());
+    }
+
+    // Test 4: a full transcript reports only the dropped and appended messages as changed
+    @Test
+    public void testDropsIncrementally() {
+        Transcript transcript = new Transcript(3, null);
+        for (int i = 1; i <= 3; i++) {
+            transcript.add(new ChatMessage("message " + i, false));
+        }
+        List<Integer> removedSizes = new ArrayList<>();
+        List<Integer> addedSizes = new ArrayList<>();
+        transcript.getMessages().addListener((ListChangeListener<ChatMessage>) change -> {
+            while (change.next()) {
+                removedSizes.add(change.getRemovedSize());
+                addedSizes.add(change.getAddedSize());
+            }
+        });
+
+        transcript.add(new ChatMessage("message 4", true));
+        assertEquals(1, removedSizes.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(1, addedSizes.stream().mapToInt(Integer::intValue).sum());
+
+        transcript.add(new ChatMessage("a", true), new ChatMessage("b", false), new ChatMessage("c", true),
+                new ChatMessage("d", false));
+        assertEquals(List.of("b", "c", "d"),
+                transcript.getMessages().stream().map(ChatMessage::getText).toList());
+    }
+}